@@ -0,0 +1,49 @@
+package com.elphie.accounts.benchmarks;
+
+// =============================================================================
+// File Name: benchmarks/DateParsingBenchmark.java
+// File Description:
+// This file contains the JMH benchmark of the yyyy-MM-dd parsing done by
+// TransactionController for every date range request
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// =============================================================================
+// Benchmark Class
+// =============================================================================
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DateParsingBenchmark {
+
+    // PROPERTIES ////////////////
+    private String date = "2024-03-15";
+
+    // BENCHMARKS ////////////////
+
+    // One new SimpleDateFormat per parse, as in the controller
+    @Benchmark
+    public Date parseSimpleDateFormat() throws ParseException {
+        return new SimpleDateFormat("yyyy-MM-dd").parse(date);
+    }
+}
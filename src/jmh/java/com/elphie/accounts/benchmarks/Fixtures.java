@@ -0,0 +1,40 @@
+package com.elphie.accounts.benchmarks;
+
+// =============================================================================
+// File Name: benchmarks/Fixtures.java
+// File Description:
+// This file contains the entities shared by the JMH benchmarks
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.sql.Date;
+import java.sql.Timestamp;
+
+import com.elphie.accounts.definitions.Money;
+import com.elphie.accounts.models.Account;
+import com.elphie.accounts.models.Transaction;
+
+// =============================================================================
+// Class
+// =============================================================================
+final class Fixtures {
+
+    private static final long NOW = 1_710_460_800_000L;
+
+    private Fixtures() {}
+
+    static Transaction transaction(long id) {
+        Transaction transaction = new Transaction(1L, 1L, "CARD PAYMENT TO TESCO STORES " + id, Money.ofMinor(1250 + id % 10_000), new Date(NOW - id * 86_400_000L));
+        transaction.setId(id);
+        transaction.setType(id % 2 == 0 ? "expense" : "income");
+        transaction.setCreatedOn(new Timestamp(NOW));
+        transaction.setUpdatedOn(new Timestamp(NOW));
+        return transaction;
+    }
+
+    static Account account(long id) {
+        return new Account(1L, "Current " + id, "current", "IE29AIBK93115212345678", Money.ofMinor(125_075));
+    }
+}
@@ -0,0 +1,72 @@
+package com.elphie.accounts.benchmarks;
+
+// =============================================================================
+// File Name: benchmarks/SerializationBenchmark.java
+// File Description:
+// This file contains the JMH benchmark of building and writing a JSON response
+// with 1, 100 and 10,000 Transactions, the way the controllers answer
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.elphie.accounts.libs.Utiles;
+import com.elphie.accounts.models.Transaction;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// =============================================================================
+// Benchmark Class
+// =============================================================================
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    // PROPERTIES ////////////////
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    private List<Transaction> transactions;
+
+    // Same builder Spring MVC uses for its message converter
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    // SETUP ////////////////
+    @Setup
+    public void setup() {
+        transactions = new ArrayList<>(size);
+        for(long id = 1; id <= size; id++) {
+            transactions.add(Fixtures.transaction(id));
+        }
+    }
+
+    // BENCHMARKS ////////////////
+    @Benchmark
+    public byte[] writeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(
+            Utiles.generateResponse(HttpStatus.OK, "Success getting Transactions.", transactions).getBody()
+        );
+    }
+}
@@ -0,0 +1,77 @@
+package com.elphie.accounts.benchmarks;
+
+// =============================================================================
+// File Name: benchmarks/UtilesBenchmark.java
+// File Description:
+// This file contains the JMH benchmarks of the Utiles validation and response
+// helpers that run on every create request
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.elphie.accounts.libs.Utiles;
+import com.elphie.accounts.models.Account;
+import com.elphie.accounts.models.Transaction;
+
+// =============================================================================
+// Benchmark Class
+// =============================================================================
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UtilesBenchmark {
+
+    // PROPERTIES ////////////////
+    private Transaction transaction;
+    private Transaction invalidTransaction;
+    private Account account;
+
+    // SETUP ////////////////
+    @Setup
+    public void setup() {
+        transaction = Fixtures.transaction(1L);
+        invalidTransaction = new Transaction();
+        account = Fixtures.account(1L);
+    }
+
+    // BENCHMARKS ////////////////
+    @Benchmark
+    public ArrayList<String> validateTransaction() {
+        return Utiles.validateTransaction(transaction);
+    }
+
+    @Benchmark
+    public ArrayList<String> validateInvalidTransaction() {
+        return Utiles.validateTransaction(invalidTransaction);
+    }
+
+    @Benchmark
+    public ArrayList<String> validateAccount() {
+        return Utiles.validateAccount(account);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> generateResponse() {
+        return Utiles.generateResponse(HttpStatus.OK, "Success getting Transaction.", transaction);
+    }
+}
@@ -0,0 +1,203 @@
+package com.elphie.accounts.analytics;
+
+// =============================================================================
+// File Name: analytics/TransactionAnalyticsStore.java
+// File Description:
+// This file contains the optional in-memory analytics store answering range
+// totals, counts and min / max from per User columns instead of the DB
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import com.elphie.accounts.config.ReplicaRoutingDataSource;
+import com.elphie.accounts.definitions.Money;
+import com.elphie.accounts.definitions.RangeSummary;
+import com.elphie.accounts.repositories.ITransactionRepository;
+import com.elphie.accounts.services.UserVersionService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// =============================================================================
+// Service Class
+// =============================================================================
+@Service
+@ConditionalOnProperty(name = "elphie.analytics.enabled", havingValue = "true")
+public class TransactionAnalyticsStore {
+
+    // PROPERTIES ////////////////
+    private static final int MAX_LOADS = 3;
+
+    private final ITransactionRepository transactionRepository;
+    private final UserVersionService userVersionService;
+
+    // Users by id, weighed in bytes and evicted (W-TinyLFU) past elphie.analytics.max-memory
+    private final Cache<Long, UserColumns> users;
+
+    // Transaction type -> code stored in the columns
+    private final Map<String, Short> typeCodes = new ConcurrentHashMap<>();
+    private final AtomicInteger nextTypeCode = new AtomicInteger();
+
+    // CONSTRUCTORS ////////////////
+    public TransactionAnalyticsStore(
+        ITransactionRepository transactionRepository,
+        UserVersionService userVersionService,
+        @Value("${elphie.analytics.max-memory:64MB}") DataSize maxMemory
+    ) {
+        this.transactionRepository = transactionRepository;
+        this.userVersionService = userVersionService;
+        this.users = Caffeine.newBuilder()
+            .maximumWeight(maxMemory.toBytes())
+            .weigher((Long userId, UserColumns columns) -> columns.bytes())
+            .recordStats()
+            .build();
+    }
+
+    // METHODS ////////////////
+
+    /**
+     * Used to get the total, count and min / max amount of a User's Transactions between two dates.
+     * The first call for a User loads its Transactions once, later calls do not touch the DB.
+     * @param userId type Long
+     * @param start type Date
+     * @param end type Date
+     * @param accountId type Long | null -> every Account
+     * @param type type String | null -> every type
+     * @return RangeSummary
+     */
+    public RangeSummary summarize(Long userId, Date start, Date end, Long accountId, String type) {
+        UserColumns columns = columns(userId);
+
+        // Codes are handed out while loading, a type still unknown once the User is loaded has no Transactions
+        Short typeCode = null;
+        if(type != null) {
+            typeCode = typeCodes.get(type);
+            if(typeCode == null) return RangeSummary.EMPTY;
+        }
+
+        long[] summary = columns.summarize(
+            (int) start.toLocalDate().toEpochDay(), (int) end.toLocalDate().toEpochDay(), accountId, typeCode
+        );
+        if(summary[1] == 0) return RangeSummary.EMPTY;
+        return new RangeSummary(Money.ofMinor(summary[0]), summary[1], Money.ofMinor(summary[2]), Money.ofMinor(summary[3]));
+    }
+
+    /**
+     * Used by the write paths to apply their Transaction changes once the DB transaction commits.
+     * Users not loaded are skipped, they read the committed rows when they are loaded. Must be called after
+     * UserVersionService.bump of the same write, so a load this skips sees the version move (see columns).
+     * @param rows type List<TransactionRow> -> In the order they happened (-1 old values, +1 new values)
+     */
+    public void apply(List<TransactionRow> rows) {
+        if(rows.isEmpty()) return;
+        afterCommit(() -> {
+            Map<Long, List<TransactionRow>> byUser = new LinkedHashMap<>();
+            for(TransactionRow row : rows) byUser.computeIfAbsent(row.userId(), id -> new ArrayList<>()).add(row);
+
+            // One compute per User so its weight is measured again after the change
+            byUser.forEach((userId, changes) -> users.asMap().computeIfPresent(userId, (id, columns) -> {
+                for(int i = 0; i < changes.size(); i++) {
+                    TransactionRow row = changes.get(i);
+                    if(row.sign() > 0) columns.upsert(row.id(), row.epochDay(), row.amount(), row.accountId(), typeCode(row.type()));
+                    // An edit keeping its date is replaced in place by the upsert that follows, no rebuild
+                    else if(!replacedNext(changes, i)) columns.remove(row.id(), row.epochDay());
+                }
+                return columns;
+            }));
+        });
+    }
+
+    /**
+     * Used after set based writes (bulk deletes) that do not know their rows, the User is loaded again on next read.
+     * @param userId type Long
+     */
+    public void evictUser(Long userId) {
+        afterCommit(() -> users.invalidate(userId));
+    }
+
+    /**
+     * Used after an Account is deleted with its Transactions.
+     * @param accountId type Long
+     */
+    public void evictAccount(Long accountId) {
+        afterCommit(() -> users.asMap().values().removeIf(columns -> columns.hasAccount(accountId)));
+    }
+
+    // HELPERS ////////////////
+
+    // Loaded columns of a User. A write committing while its rows are read finds nothing to patch in apply,
+    // the User's version moving between the start of the load and the columns being cached tells it happened:
+    // the columns are then dropped and read again
+    private UserColumns columns(Long userId) {
+        for(int attempt = 1; ; attempt++) {
+            UserColumns cached = users.getIfPresent(userId);
+            if(cached != null) return cached;
+
+            long version = userVersionService.version(userId);
+            UserColumns loaded = load(userId);
+            UserColumns concurrent = users.asMap().putIfAbsent(userId, loaded);
+            if(concurrent != null) return concurrent;
+            if(userVersionService.version(userId) == version) return loaded;
+
+            // Busy User: answer from this read, a later one caches the columns
+            users.asMap().remove(userId, loaded);
+            if(attempt == MAX_LOADS) return loaded;
+        }
+    }
+
+    private UserColumns load(Long userId) {
+        // Replicas may lag behind the writes already applied, the columns are read from the primary
+        List<Object[]> rows = ReplicaRoutingDataSource.onPrimary(() -> transactionRepository.findColumnsByUserId(userId));
+        UserColumns columns = new UserColumns(rows.size());
+        for(Object[] row : rows) {
+            // Undated legacy row, no date range holds it
+            if(row[1] == null) continue;
+            columns.append(
+                (Long) row[0],
+                (int) ((Date) row[1]).toLocalDate().toEpochDay(),
+                ((Money) row[2]).minor(),
+                (Long) row[3],
+                typeCode((String) row[4])
+            );
+        }
+        return columns;
+    }
+
+    private static boolean replacedNext(List<TransactionRow> changes, int index) {
+        if(index + 1 == changes.size()) return false;
+        TransactionRow removed = changes.get(index), next = changes.get(index + 1);
+        return next.sign() > 0 && next.id() == removed.id() && next.epochDay() == removed.epochDay();
+    }
+
+    private short typeCode(String type) {
+        return typeCodes.computeIfAbsent(String.valueOf(type), key -> (short) nextTypeCode.getAndIncrement());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,32 @@
+package com.elphie.accounts.analytics;
+
+// =============================================================================
+// File Name: analytics/TransactionRow.java
+// File Description:
+// This file contains the snapshot of one Transaction change handed from the
+// write paths to the analytics store
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import com.elphie.accounts.models.Transaction;
+
+// =============================================================================
+// Record
+// =============================================================================
+// sign +1 adds / replaces the row, -1 removes it
+public record TransactionRow(long id, Long userId, int epochDay, long amount, Long accountId, String type, int sign) {
+
+    public static TransactionRow of(Transaction transaction, int sign) {
+        return new TransactionRow(
+            transaction.getId(),
+            transaction.getUserId(),
+            (int) transaction.getDate().toLocalDate().toEpochDay(),
+            transaction.getAmount().minor(),
+            transaction.getAccountId(),
+            transaction.getType(),
+            sign
+        );
+    }
+}
@@ -0,0 +1,242 @@
+package com.elphie.accounts.analytics;
+
+// =============================================================================
+// File Name: analytics/UserColumns.java
+// File Description:
+// This file contains the columnar copy of one User's Transactions: parallel
+// primitive arrays sorted by (epoch day, id), with sum / min / max segment
+// trees over the amounts
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+// =============================================================================
+// Class
+// =============================================================================
+// Every method is synchronized, one instance is shared by the readers and the write paths of its User
+final class UserColumns {
+
+    // PROPERTIES ////////////////
+    // Bytes per row: id, day, amount, accountId, type + two slots in each of the three segment trees
+    private static final int ROW_BYTES = 8 + 4 + 8 + 8 + 2 + 3 * 2 * 8;
+
+    private long[] ids;
+    private int[] days;
+    private long[] amounts;
+    private long[] accountIds;
+    private short[] types;
+    private int size;
+
+    // Accounts ever seen, used to evict the User when one of them is deleted
+    private final Set<Long> accounts = new HashSet<>();
+
+    // Derived from the columns, leaves at capacity + index (rows past size hold 0 / MAX / MIN).
+    // Appends, removals of the last row and in place changes update them in O(log n), writes that shift
+    // rows (inserts in the past, deletes, date moves) or grow the arrays leave them to a rebuild on next read
+    private long[] sumTree = new long[0];
+    private long[] minTree = new long[0];
+    private long[] maxTree = new long[0];
+    private boolean dirty;
+
+    // CONSTRUCTORS ////////////////
+    UserColumns(int capacity) {
+        capacity = Math.max(capacity, 16);
+        ids = new long[capacity];
+        days = new int[capacity];
+        amounts = new long[capacity];
+        accountIds = new long[capacity];
+        types = new short[capacity];
+    }
+
+    // WRITES ////////////////
+
+    /**
+     * Used while loading, rows must come sorted by (day, id).
+     */
+    synchronized void append(long id, int day, long amount, long accountId, short type) {
+        ensureCapacity(size + 1);
+        set(size++, id, day, amount, accountId, type);
+        dirty = true;
+    }
+
+    /**
+     * Used to add a row or replace the row with the same id and day, so a change applied twice is harmless.
+     */
+    synchronized void upsert(long id, int day, long amount, long accountId, short type) {
+        int index = lowerBound(day, id);
+        if(index < size && days[index] == day && ids[index] == id) {
+            set(index, id, day, amount, accountId, type);
+            update(index);
+            return;
+        }
+
+        ensureCapacity(size + 1);
+        shift(index, 1);
+        set(index, id, day, amount, accountId, type);
+        size++;
+        if(index == size - 1) update(index);
+        else dirty = true;
+    }
+
+    /**
+     * Used to remove the row of a Transaction, nothing happens when it is not there.
+     */
+    synchronized void remove(long id, int day) {
+        int index = lowerBound(day, id);
+        if(index == size || days[index] != day || ids[index] != id) return;
+        shift(index + 1, -1);
+        size--;
+        if(index == size) update(index);
+        else dirty = true;
+    }
+
+    // READS ////////////////
+
+    /**
+     * Used to sum the rows between two epoch days (inclusive).
+     * Without filters the range is two binary searches and three segment tree queries, O(log n).
+     * With an Account or type filter the rows of the range are scanned.
+     * @return long[] -> { total, count, min, max }, min / max undefined when count is 0
+     */
+    synchronized long[] summarize(int fromDay, int toDay, Long accountId, Short type) {
+        if(dirty) rebuild();
+
+        int from = lowerBound(fromDay, Long.MIN_VALUE);
+        int to = lowerBound(toDay + 1, Long.MIN_VALUE);
+        if(from >= to) return new long[] { 0, 0, 0, 0 };
+
+        if(accountId == null && type == null) {
+            return new long[] { sum(from, to), to - from, query(minTree, from, to, true), query(maxTree, from, to, false) };
+        }
+
+        long total = 0, count = 0, min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+        for(int i = from; i < to; i++) {
+            if(accountId != null && accountIds[i] != accountId) continue;
+            if(type != null && types[i] != type) continue;
+            total += amounts[i];
+            count++;
+            min = Math.min(min, amounts[i]);
+            max = Math.max(max, amounts[i]);
+        }
+        return new long[] { total, count, min, max };
+    }
+
+    synchronized boolean hasAccount(long accountId) {
+        return accounts.contains(accountId);
+    }
+
+    // Weight for the memory budget, from the allocated arrays
+    synchronized int bytes() {
+        return (int) Math.min(Integer.MAX_VALUE, 64L + (long) ids.length * ROW_BYTES);
+    }
+
+    // HELPERS ////////////////
+
+    // First index whose (day, id) is >= the given one
+    private int lowerBound(int day, long id) {
+        int low = 0, high = size;
+        while(low < high) {
+            int middle = (low + high) >>> 1;
+            if(days[middle] < day || (days[middle] == day && ids[middle] < id)) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    private void set(int index, long id, int day, long amount, long accountId, short type) {
+        ids[index] = id;
+        days[index] = day;
+        amounts[index] = amount;
+        accountIds[index] = accountId;
+        types[index] = type;
+        accounts.add(accountId);
+    }
+
+    // Moves the rows from index on by offset positions
+    private void shift(int index, int offset) {
+        int length = size - index;
+        if(length <= 0) return;
+        System.arraycopy(ids, index, ids, index + offset, length);
+        System.arraycopy(days, index, days, index + offset, length);
+        System.arraycopy(amounts, index, amounts, index + offset, length);
+        System.arraycopy(accountIds, index, accountIds, index + offset, length);
+        System.arraycopy(types, index, types, index + offset, length);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if(capacity <= ids.length) return;
+        int grown = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, grown);
+        days = Arrays.copyOf(days, grown);
+        amounts = Arrays.copyOf(amounts, grown);
+        accountIds = Arrays.copyOf(accountIds, grown);
+        types = Arrays.copyOf(types, grown);
+    }
+
+    // Bottom-up segment trees over the whole capacity, so appends land on a leaf that already exists
+    private void rebuild() {
+        int capacity = ids.length;
+        if(sumTree.length != 2 * capacity) {
+            sumTree = new long[2 * capacity];
+            minTree = new long[2 * capacity];
+            maxTree = new long[2 * capacity];
+        }
+        for(int i = 0; i < capacity; i++) leaf(i);
+        for(int i = capacity - 1; i > 0; i--) combine(i);
+        dirty = false;
+    }
+
+    // Leaf of index and its ancestors, O(log n). A stale tree (or one sized for the old capacity) waits for rebuild
+    private void update(int index) {
+        if(dirty || sumTree.length != 2 * ids.length) {
+            dirty = true;
+            return;
+        }
+        leaf(index);
+        for(int node = (ids.length + index) >> 1; node > 0; node >>= 1) combine(node);
+    }
+
+    private void leaf(int index) {
+        int node = ids.length + index;
+        sumTree[node] = index < size ? amounts[index] : 0;
+        minTree[node] = index < size ? amounts[index] : Long.MAX_VALUE;
+        maxTree[node] = index < size ? amounts[index] : Long.MIN_VALUE;
+    }
+
+    private void combine(int node) {
+        sumTree[node] = sumTree[2 * node] + sumTree[2 * node + 1];
+        minTree[node] = Math.min(minTree[2 * node], minTree[2 * node + 1]);
+        maxTree[node] = Math.max(maxTree[2 * node], maxTree[2 * node + 1]);
+    }
+
+    // Sum of the leaves [from, to)
+    private long sum(int from, int to) {
+        long result = 0;
+        for(int low = from + ids.length, high = to + ids.length; low < high; low >>= 1, high >>= 1) {
+            if((low & 1) == 1) result += sumTree[low++];
+            if((high & 1) == 1) result += sumTree[--high];
+        }
+        return result;
+    }
+
+    // Min / max of the leaves [from, to)
+    private long query(long[] tree, int from, int to, boolean min) {
+        long result = min ? Long.MAX_VALUE : Long.MIN_VALUE;
+        for(int low = from + ids.length, high = to + ids.length; low < high; low >>= 1, high >>= 1) {
+            if((low & 1) == 1) {
+                result = min ? Math.min(result, tree[low]) : Math.max(result, tree[low]);
+                low++;
+            }
+            if((high & 1) == 1) {
+                high--;
+                result = min ? Math.min(result, tree[high]) : Math.max(result, tree[high]);
+            }
+        }
+        return result;
+    }
+}
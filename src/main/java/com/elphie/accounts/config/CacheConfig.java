@@ -0,0 +1,55 @@
+package com.elphie.accounts.config;
+
+// =============================================================================
+// File Name: config/CacheConfig.java
+// File Description:
+// This file contains the configuration of the in-process entity caches
+// (Caffeine, sized by spring.cache.caffeine.spec).
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// =============================================================================
+// Class
+// =============================================================================
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // PROPERTIES ////////////////
+    public static final String ACCOUNTS = "accounts";
+    public static final String TRANSACTIONS = "transactions";
+
+    /**
+     * Used to build the Caffeine caches (W-TinyLFU eviction, size / TTL from the spec).
+     * The manager is wrapped so puts and evictions wait for the DB transaction to commit:
+     * a write that rolls back never evicts. This does not stop a stale entry: a @Cacheable read outside the
+     * transaction can load the pre-commit row while the write is in flight and put it back after the deferred
+     * evict ran. Such an entry is served until it expires, so the staleness is bounded by the TTL of the spec.
+     * @param cacheNames type List<String> -> spring.cache.cache-names
+     * @param cacheSpec type String -> spring.cache.caffeine.spec, recordStats feeds the cache.* metrics
+     * @return CacheManager
+     */
+    @Bean
+    public CacheManager cacheManager(
+        @Value("${spring.cache.cache-names}") List<String> cacheNames,
+        @Value("${spring.cache.caffeine.spec}") String cacheSpec
+    ) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheSpecification(cacheSpec);
+        cacheManager.setCacheNames(cacheNames);
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
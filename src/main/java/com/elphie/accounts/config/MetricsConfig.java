@@ -0,0 +1,84 @@
+package com.elphie.accounts.config;
+
+// =============================================================================
+// File Name: config/MetricsConfig.java
+// File Description:
+// This file contains the configuration of the request and repository metrics
+// scraped from /actuator/prometheus, on top of the ones Spring Boot publishes
+// (http.server.requests, spring.data.repository.invocations, hibernate.*).
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+import com.elphie.accounts.metrics.HandlerNames;
+import com.elphie.accounts.metrics.PayloadSizeFilter;
+import com.elphie.accounts.metrics.RepositoryRowsInterceptor;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// =============================================================================
+// Class
+// =============================================================================
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Used to tag http.server.requests with the controller method that answered, several
+     * methods share one URI and are only told apart by their params (e.g. /transactions/get).
+     * @return ServerRequestObservationConvention
+     */
+    @Bean
+    public ServerRequestObservationConvention serverRequestObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context)
+                    .and("handler", HandlerNames.of(context.getCarrier()));
+            }
+        };
+    }
+
+    /**
+     * Used to record request / response body sizes as http.server.request.size and http.server.response.size.
+     * @param registry type MeterRegistry
+     * @return PayloadSizeFilter
+     */
+    @Bean
+    public PayloadSizeFilter payloadSizeFilter(MeterRegistry registry) {
+        return new PayloadSizeFilter(registry);
+    }
+
+    /**
+     * Used to add the row count interceptor to every repository proxy, next to the
+     * spring.data.repository.invocations timer Spring Boot adds the same way.
+     * @param registry type ObjectProvider<MeterRegistry> -> resolved when the first repository is built
+     * @return BeanPostProcessor
+     */
+    @Bean
+    public static BeanPostProcessor repositoryRowsBeanPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if(bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                        (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(new RepositoryRowsInterceptor(
+                            registry.getObject(), repositoryInformation.getRepositoryInterface().getSimpleName()
+                        ))
+                    ));
+                }
+                return bean;
+            }
+        };
+    }
+}
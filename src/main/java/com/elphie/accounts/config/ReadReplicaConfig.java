@@ -0,0 +1,184 @@
+package com.elphie.accounts.config;
+
+// =============================================================================
+// File Name: config/ReadReplicaConfig.java
+// File Description:
+// This file contains the configuration of the optional read replicas: reads of
+// the GET /accounts and /transactions endpoints go to a replica, writes and
+// everything else to the primary spring.datasource
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.elphie.accounts.services.UserVersionService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// =============================================================================
+// Class
+// =============================================================================
+@Configuration
+@ConditionalOnProperty(name = "elphie.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    // PROPERTIES ////////////////
+
+    // Time of the client's last write (epoch millis), sent back by the client to whichever instance serves its reads
+    public static final String LAST_WRITE_COOKIE = "elphie_last_write";
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    // METHODS ////////////////
+
+    /**
+     * Used to replace the auto-configured DataSource with the primary / replicas pair.
+     * Connections are handed out lazily: the physical one is only taken on the first statement, once the
+     * DB transaction is known to be read-only. Read-only ones go through the ReplicaRoutingDataSource,
+     * every other connection (writes, Flyway, schema checks) comes from the primary.
+     * @param properties type DataSourceProperties -> spring.datasource.* of the primary
+     * @param environment type Environment -> spring.datasource.hikari.*, elphie.replicas.hikari.* on top for the replicas
+     * @param urls type List<String> -> elphie.replicas.urls
+     * @param registry type ObjectProvider<MeterRegistry> -> hikaricp.* pool metrics of every pool
+     * @return DataSource
+     */
+    @Bean
+    public DataSource dataSource(
+        DataSourceProperties properties,
+        Environment environment,
+        @Value("${elphie.replicas.urls}") List<String> urls,
+        ObjectProvider<MeterRegistry> registry
+    ) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = pool("primary", properties, registry);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        List<DataSource> replicas = new ArrayList<>();
+        for(String url : urls) {
+            HikariDataSource replica = pool("replica-" + (replicas.size() + 1), properties, registry);
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            binder.bind("elphie.replicas.hikari", Bindable.ofInstance(replica));
+            replica.setJdbcUrl(url.trim());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replicas));
+        return dataSource;
+    }
+
+    /**
+     * Used to let the GET requests of a User that did not write within the stickiness window read from a replica.
+     * A User's own writes are read back from the primary until the replicas have caught up (read-your-writes).
+     * The last write is known two ways: UserVersionService for writes this instance committed, and the
+     * LAST_WRITE_COOKIE set on every write request for the client's writes served by another instance behind
+     * the load balancer. A client that drops cookies (or a write made by a job) is only covered on the instance
+     * that wrote. Requests without a userId (lookups by id, served from the entity caches) stay on the primary.
+     * @param userVersionService type UserVersionService -> Last committed write of each User on this instance
+     * @param stickiness type Duration -> elphie.replicas.stickiness, longer than the replication lag
+     * @return WebMvcConfigurer
+     */
+    @Bean
+    public WebMvcConfigurer replicaRoutingConfigurer(
+        UserVersionService userVersionService,
+        @Value("${elphie.replicas.stickiness:5s}") Duration stickiness
+    ) {
+        HandlerInterceptor interceptor = new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                // Set before the handler writes the body, a write that fails only costs reads from the primary
+                if(!"GET".equals(request.getMethod())) {
+                    response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(LAST_WRITE_COOKIE, Long.toString(System.currentTimeMillis()))
+                        .path("/").maxAge(stickiness).httpOnly(true).sameSite("Lax").build().toString());
+                    return true;
+                }
+
+                Long userId = userId(request);
+                ReplicaRoutingDataSource.allowReplica(
+                    userId != null && !userVersionService.writtenWithin(userId, stickiness) && !wroteWithin(request, stickiness)
+                );
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception error) {
+                ReplicaRoutingDataSource.allowReplica(false);
+            }
+        };
+
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor).addPathPatterns("/accounts/**", "/transactions/**", "/plaid/**");
+            }
+        };
+    }
+
+    @PreDestroy
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    // HELPERS ////////////////
+
+    private HikariDataSource pool(String name, DataSourceProperties properties, ObjectProvider<MeterRegistry> registry) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName(name);
+        registry.ifAvailable(meters -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meters)));
+        pools.add(pool);
+        return pool;
+    }
+
+    private static boolean wroteWithin(HttpServletRequest request, Duration window) {
+        Cookie[] cookies = request.getCookies();
+        if(cookies == null) return false;
+        for(Cookie cookie : cookies) {
+            if(!LAST_WRITE_COOKIE.equals(cookie.getName())) continue;
+            try {
+                return System.currentTimeMillis() - Long.parseLong(cookie.getValue()) < window.toMillis();
+            } catch (NumberFormatException error) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static Long userId(HttpServletRequest request) {
+        try {
+            String userId = request.getParameter("userId");
+            return userId == null ? null : Long.valueOf(userId);
+        } catch (NumberFormatException error) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.elphie.accounts.config;
+
+// =============================================================================
+// File Name: config/ReplicaRoutingDataSource.java
+// File Description:
+// This file contains the DataSource handing the read-only connections of a
+// request either to one of the read replicas or to the primary DB
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+// =============================================================================
+// Class
+// =============================================================================
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    // PROPERTIES ////////////////
+    private static final String PRIMARY = "primary";
+
+    // Set for the requests allowed to read from a replica, everything else (writes, jobs, async threads) stays on the primary
+    private static final ThreadLocal<Boolean> REPLICA_ALLOWED = new ThreadLocal<>();
+
+    private final int replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    // CONSTRUCTORS ////////////////
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for(int i = 0; i < replicas.size(); i++) targets.put(i, replicas.get(i));
+
+        this.replicas = replicas.size();
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    // METHODS ////////////////
+
+    /**
+     * Used around a request to let its read-only connections go to a replica.
+     * @param allowed type boolean -> false clears it at the end of the request
+     */
+    public static void allowReplica(boolean allowed) {
+        if(allowed) REPLICA_ALLOWED.set(Boolean.TRUE);
+        else REPLICA_ALLOWED.remove();
+    }
+
+    /**
+     * Used for the reads that must see every committed write, they go to the primary whatever the request allows.
+     * The connection must not be taken yet: a read-only DB transaction already on a replica keeps its connection.
+     * @param read type Supplier<T>
+     * @return T -> What read returned
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        Boolean allowed = REPLICA_ALLOWED.get();
+        REPLICA_ALLOWED.remove();
+        try {
+            return read.get();
+        } finally {
+            if(allowed != null) REPLICA_ALLOWED.set(allowed);
+        }
+    }
+
+    // Replicas in turn, only asked for connections that are already read-only
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if(replicas == 0 || REPLICA_ALLOWED.get() == null) return PRIMARY;
+        return Math.floorMod(next.getAndIncrement(), replicas);
+    }
+}
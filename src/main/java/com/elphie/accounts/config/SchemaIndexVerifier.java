@@ -0,0 +1,108 @@
+package com.elphie.accounts.config;
+
+// =============================================================================
+// File Name: config/SchemaIndexVerifier.java
+// File Description:
+// This file contains the startup check that makes sure every index declared
+// on the entities (@Table indexes) exists in the DB.
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+
+// =============================================================================
+// Class
+// =============================================================================
+@Component
+@ConditionalOnProperty(name = "elphie.schema.verify-indexes", havingValue = "true", matchIfMissing = true)
+public class SchemaIndexVerifier implements InitializingBean {
+
+    // PROPERTIES ////////////////
+    // Injecting the EntityManagerFactory makes this run after the Flyway migrations
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    /**
+     * Used to compare the @Table indexes of every entity with the indexes found in the DB.
+     * An index matches when the DB has an index on exactly the same columns in the same order,
+     * whatever its name. Any missing index stops the application from starting.
+     * @throws IllegalStateException when at least one declared index is missing
+     * @throws SQLException when the DB metadata cannot be read
+     */
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+
+        List<String> missing = new ArrayList<>();
+
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+
+            for(EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+                Table table = entity.getJavaType().getAnnotation(Table.class);
+                if(table == null || table.indexes().length == 0) continue;
+
+                List<List<String>> existing = findIndexColumns(metaData, table.name());
+                for(Index index : table.indexes()) {
+                    List<String> columns = new ArrayList<>();
+                    for(String column : index.columnList().split(",")) columns.add(physicalName(column.trim()));
+                    if(!existing.contains(columns)) missing.add(table.name() + " " + columns + " (" + index.name() + ")");
+                }
+            }
+        }
+
+        if(missing.size() > 0) {
+            throw new IllegalStateException("Missing DB indexes required by the repositories: " + missing);
+        }
+    }
+
+    // HELPERS ////////////////
+
+    // Column lists of every index on the table, in index column order
+    private List<List<String>> findIndexColumns(DatabaseMetaData metaData, String tableName) throws SQLException {
+        Map<String, TreeMap<Short, String>> indexes = new LinkedHashMap<>();
+        try (ResultSet rows = metaData.getIndexInfo(null, null, tableName, false, false)) {
+            while(rows.next()) {
+                String indexName = rows.getString("INDEX_NAME");
+                String columnName = rows.getString("COLUMN_NAME");
+                if(indexName == null || columnName == null) continue;
+                indexes.computeIfAbsent(indexName, name -> new TreeMap<>())
+                    .put(rows.getShort("ORDINAL_POSITION"), columnName.toLowerCase(Locale.ROOT));
+            }
+        }
+
+        List<List<String>> columnLists = new ArrayList<>();
+        for(TreeMap<Short, String> columns : indexes.values()) columnLists.add(new ArrayList<>(columns.values()));
+        return columnLists;
+    }
+
+    // Same mapping as Spring's CamelCaseToUnderscoresNamingStrategy: userId -> user_id
+    private String physicalName(String column) {
+        return column.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase(Locale.ROOT);
+    }
+}
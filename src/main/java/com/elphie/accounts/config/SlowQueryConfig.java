@@ -0,0 +1,56 @@
+package com.elphie.accounts.config;
+
+// =============================================================================
+// File Name: config/SlowQueryConfig.java
+// File Description:
+// This file contains the configuration of the slow query log, replacing the
+// unconditional spring.jpa.show-sql output.
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.elphie.accounts.metrics.SlowQueryDataSource;
+import com.elphie.accounts.metrics.SlowQueryLog;
+
+// =============================================================================
+// Class
+// =============================================================================
+@Configuration
+@ConditionalOnProperty(name = "elphie.slow-query.enabled", havingValue = "true")
+public class SlowQueryConfig {
+
+    /**
+     * Used to wrap the DataSource so every statement is timed and the slow ones are logged
+     * with their SQL, parameter types, duration, rows and controller method.
+     * @param environment type Environment -> elphie.slow-query.threshold / sample-rate
+     * @return BeanPostProcessor
+     */
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(Environment environment) {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(
+            environment.getProperty("elphie.slow-query.threshold", Duration.class, Duration.ofMillis(200)),
+            environment.getProperty("elphie.slow-query.sample-rate", Double.class, 1.0)
+        );
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if(bean instanceof DataSource dataSource && !(bean instanceof SlowQueryDataSource)) {
+                    return new SlowQueryDataSource(dataSource, slowQueryLog);
+                }
+                return bean;
+            }
+        };
+    }
+}
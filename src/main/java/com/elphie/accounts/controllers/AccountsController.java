@@ -16,6 +16,7 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -26,12 +27,18 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.elphie.accounts.definitions.AccountDashboard;
 import com.elphie.accounts.definitions.AccountRequest;
+import com.elphie.accounts.definitions.AccountView;
+import com.elphie.accounts.libs.Cursors;
 import com.elphie.accounts.libs.Utiles;
 import com.elphie.accounts.models.Account;
 import com.elphie.accounts.repositories.IAccountRepository;
+import com.elphie.accounts.services.AccountService;
+import com.elphie.accounts.services.UserVersionService;
 
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 
@@ -47,6 +54,12 @@ public class AccountsController {
     @Autowired
     private IAccountRepository accountRepository;
 
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private UserVersionService userVersionService;
+
     // HTTP REQUEST METHODS ////////////////
 
     /**
@@ -82,6 +95,7 @@ public class AccountsController {
             
             // Add Account to DB
             Account createdAccount = accountRepository.save(account);
+            userVersionService.bump(createdAccount.getUserId());
 
             // Return SUCCESS Response 200 OK
             return Utiles.generateResponse(
@@ -115,8 +129,8 @@ public class AccountsController {
     @GetMapping(value="/get", params={"id"})
     public ResponseEntity<Object> get(@RequestParam(name="id") Long id) {
         try {
-            // Find or Throw Exception
-            Optional<Account> account = accountRepository.findById(id);
+            // Find or Throw Exception (cached)
+            Optional<Account> account = accountService.findById(id);
 
             // If account not found return 404 ERROR
             if(!account.isPresent()) {
@@ -165,7 +179,7 @@ public class AccountsController {
     ) {
         try {
             // Find Account List
-            List<Account> filteredAccounts = accountRepository.findByUserIdAndNameContaining(userId, query);
+            List<AccountView> filteredAccounts = accountRepository.findByUserIdAndNameContaining(userId, query);
 
             // If Accounts List is empty return 404 ERROR
             if(filteredAccounts.size() == 0) {
@@ -176,8 +190,6 @@ public class AccountsController {
                 );
             }
 
-            System.out.println(filteredAccounts.toString());
-
             // Return SUCCESS Response 200 OK
             return Utiles.generateResponse(
                 HttpStatus.OK,
@@ -196,6 +208,144 @@ public class AccountsController {
         }
     }
 
+    /**
+     * Used to GET one page of Accounts by User ID and filtered by Name Like query from the DB.
+     * Strategy: Validate data coming from FE, Try seek the page after the cursor in DB, Catch errors if any.
+     * Steps:
+     *    1 -> If limit is not between 1 and 1000 or the cursor is invalid return ERROR Response with 400 Bad Request
+     *    2 -> Try find limit + 1 Accounts after (name, id) of the cursor, ordered by (name, id)
+     *    3 -> If not found then return ERROR Response with 404 Not Found Error and Message.
+     *    4 -> Else return SUCCESS Response with 200 Ok status with the page and the next cursor (null on the last page)
+     *    5 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
+     * @param userId type Long
+     * @param query type String
+     * @param limit type int
+     * @param cursor type String | null -> The next value of the previous page
+     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | ERROR Response 400 Bad Request | ERROR 404 Not Found | ERROR 500 Internal Server Error
+     */
+    @GetMapping(value="/get", params={"userId", "query", "limit"})
+    public ResponseEntity<Object> getPage(
+        @RequestParam(name="userId") Long userId,
+        @RequestParam(name="query") String query,
+        @RequestParam(name="limit") int limit,
+        @RequestParam(name="cursor", required=false) String cursor
+    ) {
+        // Validate limit
+        if(!Cursors.isValidLimit(limit)) {
+            return Utiles.generateResponse(
+                HttpStatus.BAD_REQUEST,
+                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                "Limit must be between 1 and " + Cursors.MAX_LIMIT + "."
+            );
+        }
+
+        // Seek position, the first page starts before any name
+        String afterName = "";
+        long afterId = 0;
+        try {
+            if(cursor != null) {
+                Cursors.Cursor after = Cursors.decode(cursor);
+                afterName = after.key();
+                afterId = after.id();
+            }
+        } catch (IllegalArgumentException error) {
+            return Utiles.generateResponse(
+                HttpStatus.BAD_REQUEST,
+                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                "Invalid cursor."
+            );
+        }
+
+        try {
+            // Find one row more than asked to know if there is a next page
+            List<Account> page = accountRepository.findPageByUserIdAndNameContaining(
+                userId, query, afterName, afterId, Limit.of(limit + 1)
+            );
+
+            // If Accounts List is empty return 404 ERROR
+            if(page.size() == 0) {
+                return Utiles.generateResponse(
+                    HttpStatus.NOT_FOUND,
+                    HttpStatus.NOT_FOUND.getReasonPhrase(),
+                    "There seams to not be any matches in the DB..."
+                );
+            }
+
+            // Build next cursor from the last returned Account
+            String next = null;
+            if(page.size() > limit) {
+                Account last = page.get(limit - 1);
+                next = Cursors.encode(last.getName(), last.getId());
+            }
+
+            // Return SUCCESS Response 200 OK
+            return Utiles.generateResponse(
+                HttpStatus.OK,
+                "Success getting Accounts.",
+                page.size() > limit ? page.subList(0, limit) : page,
+                next
+            );
+
+        } catch (Exception error) {
+
+            // Return ERROR Response 500 Internal Server Error
+            return Utiles.generateResponse(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                error.getMessage(),
+                "Failed to get Accounts from DB."
+            );
+        }
+    }
+
+    /**
+     * Used to GET the home screen of a User in one call: every Account with its latest Transactions and month-to-date total.
+     * Strategy: Validate data coming from FE, Try read Accounts, Transactions and totals in a constant number of queries, Catch errors if any.
+     * Steps:
+     *    1 -> If limit is not between 1 and 1000 return ERROR Response with 400 Bad Request
+     *    2 -> Try find the Accounts, the latest limit Transactions of each and the month-to-date totals in DB
+     *    3 -> Return SUCCESS Response with 200 Ok status with a [{ account, monthTotal, monthCount, latest }] List
+     *    4 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
+     * Replaces one call for the Accounts plus one call per Account for its recent activity.
+     * @param userId type Long
+     * @param limit type int -> Transactions per Account, 5 by default
+     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | ERROR Response 400 Bad Request | ERROR 500 Internal Server Error
+     */
+    @GetMapping(value="/dashboard", params={"userId"})
+    public ResponseEntity<Object> getDashboard(
+        @RequestParam(name="userId") Long userId,
+        @RequestParam(name="limit", defaultValue="5") int limit
+    ) {
+        // Validate limit
+        if(!Cursors.isValidLimit(limit)) {
+            return Utiles.generateResponse(
+                HttpStatus.BAD_REQUEST,
+                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                "Limit must be between 1 and " + Cursors.MAX_LIMIT + "."
+            );
+        }
+
+        try {
+            // Find Accounts with their activity
+            List<AccountDashboard> dashboard = accountService.dashboard(userId, limit);
+
+            // Return SUCCESS Response 200 OK
+            return Utiles.generateResponse(
+                HttpStatus.OK,
+                "Success getting dashboard.",
+                dashboard
+            );
+
+        } catch (Exception error) {
+
+            // Return ERROR Response 500 Internal Server Error
+            return Utiles.generateResponse(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                error.getMessage(),
+                "Failed to get dashboard from DB."
+            );
+        }
+    }
+
     /**
      * Used to UPDATE the Account by Id in the DB.
      * Strategy: Validate data coming from FE, Try update Account in DB, Catch Errors if any.
@@ -222,11 +372,11 @@ public class AccountsController {
         }
 
         try {
-            // Find billing or Throw Exception
-            Optional<Account> account = accountRepository.findById(id);
+            // Update Account (balance only when sent, see AccountService)
+            Optional<Account> updatedAccount = accountService.update(id, request);
 
             // If account not found return 404 ERROR
-            if(!account.isPresent()) {
+            if(!updatedAccount.isPresent()) {
                 return Utiles.generateResponse(
                     HttpStatus.NOT_FOUND, 
                     HttpStatus.NOT_FOUND.getReasonPhrase(), 
@@ -234,23 +384,11 @@ public class AccountsController {
                 );
             }
 
-            // Set new data
-            account.get().setName(request.getName());
-            account.get().setType(request.getType());
-            account.get().setIban(request.getIban());
-            account.get().setBalance(Double.parseDouble(request.getBalance()));
-            
-            // Set new Updated On date
-            account.get().setUpdatedOn(new Timestamp(System.currentTimeMillis()));
-            
-            // Save user with new data
-            Account updatedAccount = accountRepository.save(account.get());
-
             // Return SUCCESS Response 200 OK
             return Utiles.generateResponse(
                 HttpStatus.OK, 
                 "Success updating Account.", 
-                updatedAccount
+                updatedAccount.get()
             );
 
         } catch (Exception error) {
@@ -264,6 +402,60 @@ public class AccountsController {
         
     }
 
+
+    /**
+     * Used to PATCH the Account by Id in the DB with only the fields sent.
+     * Strategy: One UPDATE ... WHERE id = ? with the fields present, no load-then-save.
+     * Steps: 
+     *    1 -> If Request is NULL or has no fields return ERROR Response with 400 Bad Request Status with message
+     *    2 -> Try patch Account in DB
+     *    3 -> If no row updated return ERROR Response 404 Not Found with Message
+     *    4 -> Else return SUCCESS Response with 200 Ok status
+     *    5 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
+     * @param id type Long from URL Params
+     * @param request type AccountRequest -> NULL fields are left untouched
+     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | ERROR Response 400 Bad Request | ERROR 404 Not Found | ERROR 500 Internal Server Error
+     */
+    @PatchMapping("/{id}/update")
+    public ResponseEntity<Object> patch(@PathVariable Long id, @RequestBody AccountRequest request) {
+        
+        // Check request has something to update
+        if(request == null || (request.getName() == null && request.getType() == null 
+            && request.getIban() == null && request.getBalance() == null)) {
+            return Utiles.generateResponse(
+                HttpStatus.BAD_REQUEST, 
+                HttpStatus.BAD_REQUEST.getReasonPhrase(), 
+                "Request must contain at least one field."
+            );
+        }
+
+        try {
+            // If account not found return 404 ERROR
+            if(!accountService.patch(id, request)) {
+                return Utiles.generateResponse(
+                    HttpStatus.NOT_FOUND, 
+                    HttpStatus.NOT_FOUND.getReasonPhrase(), 
+                    "Account with id " + id + " not found."
+                );
+            }
+
+            // Return SUCCESS Response 200 OK
+            return Utiles.generateResponse(
+                HttpStatus.OK, 
+                "Success updating Account.", 
+                null
+            );
+
+        } catch (Exception error) {
+            // Return ERROR Response 500 Internal Server Error
+            return Utiles.generateResponse(
+                HttpStatus.INTERNAL_SERVER_ERROR,  
+                error.getMessage(), 
+                "Failed to update Account in DB."
+            );
+        }
+    }
+
     /**
      * Used to DELETE an Account by Id from the DB.
      * Strategy: Validate data coming from FE, Try delete Account from DB, Catch Errors if any.
@@ -290,20 +482,17 @@ public class AccountsController {
         }
 
         try {
-            // Find Account
-            Optional<Account> account = accountRepository.findById(id);
+            // Delete Account with its Transactions and daily totals
+            boolean deleted = accountService.delete(id);
 
             // If account not found return 404 ERROR
-            if(!account.isPresent()) {
+            if(!deleted) {
                 return Utiles.generateResponse(
                     HttpStatus.NOT_FOUND, 
                     HttpStatus.NOT_FOUND.getReasonPhrase(), 
                     "Account with id " + id + " not found."
                 );
             }
-        
-            // Delete Account
-            accountRepository.delete(account.get());
 
             // Return SUCCESS Response 200 OK
             return Utiles.generateResponse(
@@ -1,5 +1,147 @@
 package com.elphie.accounts.controllers;
 
+// =============================================================================
+// File Name: controllers/PlaidController.java
+// File Description:
+// This file contains the code of the Plaid Controller that starts the
+// Transaction sync of the Accounts linked to Plaid.
+// =============================================================================
+
+// =============================================================================
+// Controller Imports
+// =============================================================================
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.elphie.accounts.definitions.SyncReport;
+import com.elphie.accounts.libs.Utiles;
+import com.elphie.accounts.services.PlaidSyncService;
+import com.elphie.accounts.services.PlaidSyncService.AccountNotLinkedException;
+
+// =============================================================================
+// Controller Class
+// =============================================================================
+@CrossOrigin(origins = "http://localhost:8000")
+@RestController
+@RequestMapping("/plaid/")
 public class PlaidController {
-    
+
+    // PROPERTIES ////////////////
+    @Autowired
+    private PlaidSyncService plaidSyncService;
+
+    // HTTP REQUEST METHODS ////////////////
+
+    /**
+     * Used to SYNC the Transactions of every Account linked to Plaid.
+     * Strategy: Pull each Account's changes since its last cursor on a bounded worker pool, Catch errors if any.
+     * Steps:
+     *    1 -> If a sync is already running return ERROR Response with 409 Conflict
+     *    2 -> Try sync every linked Account, an Account failing is reported and the others go on
+     *    3 -> Return SUCCESS Response with 200 Ok status with the SyncReport
+     *    4 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
+     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | ERROR 409 Conflict | ERROR 500 Internal Server Error
+     */
+    @PostMapping("/sync")
+    public ResponseEntity<Object> syncAll() {
+        try {
+            // Sync every linked Account
+            SyncReport report = plaidSyncService.syncAll();
+
+            // Return SUCCESS Response 200 OK
+            return Utiles.generateResponse(
+                HttpStatus.OK,
+                "Success syncing Plaid Transactions.",
+                report
+            );
+
+        } catch (IllegalStateException error) {
+
+            // Return ERROR Response 409 Conflict
+            return Utiles.generateResponse(
+                HttpStatus.CONFLICT,
+                HttpStatus.CONFLICT.getReasonPhrase(),
+                error.getMessage()
+            );
+
+        } catch (Exception error) {
+
+            // Return ERROR Response 500 Internal Server Error
+            return Utiles.generateResponse(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                error.getMessage(),
+                "Failed to sync Plaid Transactions."
+            );
+        }
+    }
+
+    /**
+     * Used to SYNC the Transactions of one Account linked to Plaid.
+     * Strategy: Pull the Account's changes since its last cursor, Catch errors if any.
+     * Steps:
+     *    1 -> Try sync the Account
+     *    2 -> If not found or not linked return ERROR Response with 404 Not Found with Message
+     *    3 -> If the Account is already being synced return ERROR Response with 409 Conflict
+     *    4 -> If Plaid sent a Transaction that cannot be stored return ERROR Response with 502 Bad Gateway with Message
+     *    5 -> Else return SUCCESS Response with 200 Ok status with the SyncReport
+     *    6 -> Catch Server side / Plaid errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
+     * @param id type Long
+     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | ERROR 404 Not Found | ERROR 409 Conflict | ERROR 502 Bad Gateway | ERROR 500 Internal Server Error
+     */
+    @PostMapping("/{id}/sync")
+    public ResponseEntity<Object> sync(@PathVariable Long id) {
+        try {
+            // Sync Account
+            SyncReport report = plaidSyncService.syncAccount(id);
+
+            // Return SUCCESS Response 200 OK
+            return Utiles.generateResponse(
+                HttpStatus.OK,
+                "Success syncing Plaid Transactions.",
+                report
+            );
+
+        } catch (AccountNotLinkedException error) {
+
+            // Return ERROR Response 404 Not Found
+            return Utiles.generateResponse(
+                HttpStatus.NOT_FOUND,
+                HttpStatus.NOT_FOUND.getReasonPhrase(),
+                error.getMessage()
+            );
+
+        } catch (IllegalStateException error) {
+
+            // Return ERROR Response 409 Conflict
+            return Utiles.generateResponse(
+                HttpStatus.CONFLICT,
+                HttpStatus.CONFLICT.getReasonPhrase(),
+                error.getMessage()
+            );
+
+        } catch (IllegalArgumentException error) {
+
+            // Return ERROR Response 502 Bad Gateway, malformed upstream data
+            return Utiles.generateResponse(
+                HttpStatus.BAD_GATEWAY,
+                error.getMessage(),
+                "Plaid sent Transactions that cannot be stored."
+            );
+
+        } catch (Exception error) {
+
+            // Return ERROR Response 500 Internal Server Error
+            return Utiles.generateResponse(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                error.getMessage(),
+                "Failed to sync Plaid Transactions."
+            );
+        }
+    }
 }
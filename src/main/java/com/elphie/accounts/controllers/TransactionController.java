@@ -10,15 +10,22 @@ package com.elphie.accounts.controllers;
 // =============================================================================
 // Controller Imports
 // =============================================================================
-import java.sql.Timestamp;
+import java.io.InputStream;
+import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -27,15 +34,33 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.elphie.accounts.definitions.DailySpend;
+import com.elphie.accounts.definitions.RangeSummary;
+import com.elphie.accounts.definitions.SpendGroup;
+import com.elphie.accounts.definitions.ImportReport;
 import com.elphie.accounts.definitions.TransactionRequest;
+import com.elphie.accounts.definitions.TransactionView;
+import com.elphie.accounts.libs.Cursors;
 import com.elphie.accounts.libs.Utiles;
 import com.elphie.accounts.models.Transaction;
+import com.elphie.accounts.repositories.IDailyTotalRepository;
 import com.elphie.accounts.repositories.ITransactionRepository;
+import com.elphie.accounts.services.PartitionMaintenanceService;
+import com.elphie.accounts.services.TransactionExportService;
+import com.elphie.accounts.services.TransactionGroupCommitter;
+import com.elphie.accounts.services.TransactionImportService;
+import com.elphie.accounts.services.TransactionService;
+import com.elphie.accounts.services.UserVersionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 // =============================================================================
 // Controller Class
@@ -46,28 +71,57 @@ import org.springframework.web.bind.annotation.RequestBody;
 public class TransactionController {
 
     // PROPERTIES ////////////////
+    private static final java.sql.Date FIRST_DATE = java.sql.Date.valueOf("0001-01-01");
+
     @Autowired
     private ITransactionRepository transactionRepository;
 
+    @Autowired
+    private IDailyTotalRepository dailyTotalRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    // Only present with elphie.group-commit.enabled
+    @Autowired(required = false)
+    private TransactionGroupCommitter transactionGroupCommitter;
+
+    // Only present with elphie.partitions.enabled, turns away dates no partition holds
+    @Autowired(required = false)
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    @Autowired
+    private TransactionImportService transactionImportService;
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    @Autowired
+    private UserVersionService userVersionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // HTTP REQUEST METHODS ////////////////
 
     /**
      * Used to CREATE an Transaction and add it to the DB.
      * Strategy: Validate data coming from FE, Try add Transaction to DB, Catch errors if any.
      * Steps: 
-     *    1 -> If validateTransaction has ERRORS return ERROR Response with 400 Bad Request Status with ERRORS Array
+     *    1 -> If validateTransaction has ERRORS or no partition holds its date return ERROR Response with 400 Bad Request Status with ERRORS Array
      *      ELSE
-     *    2 -> Try add Transaction to DB
+     *    2 -> Try add Transaction to DB, through the group commit when enabled
      *    3 -> If added to DB OK then return SUCCESS Response with 200 Ok status with Transaction Object
-     *    4 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
+     *    4 -> If the group commit queue is full return ERROR Response with 503 Service Unavailable
+     *    5 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
      * @param transaction type Transaction from Request Body
-     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | ERROR Response 400 Bad Request | ERROR 500 Internal Server Error
+     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | ERROR Response 400 Bad Request | ERROR 503 Service Unavailable | ERROR 500 Internal Server Error
      */
     @PostMapping("/create")
     public ResponseEntity<Object> create(@RequestBody Transaction transaction) {
 
-         // Get errors from validateTransaction method
-         ArrayList<String> errors = Utiles.validateTransaction(transaction);
+         // Get errors from validateTransaction method and the partitioned date range
+         ArrayList<String> errors = validate(transaction);
 
          // Return ERROR Response 400 Bad Request
          if(errors != null && errors.size() > 0) {
@@ -79,11 +133,10 @@ public class TransactionController {
         }
 
          try {
-            // Set Created Date data in Transaction Object
-            transaction.setCreatedOn(new Timestamp(System.currentTimeMillis()));
-            
-            // Add Transaction to DB
-            Transaction createdTransaction = transactionRepository.save(transaction);
+            // Add Transaction to DB (and to its daily total), batched with concurrent creates when enabled
+            Transaction createdTransaction = transactionGroupCommitter != null
+                ? transactionGroupCommitter.create(transaction)
+                : transactionService.create(transaction);
 
             // Return SUCCESS Response 200 OK
             return Utiles.generateResponse(
@@ -92,6 +145,15 @@ public class TransactionController {
                 createdTransaction
             );
 
+         } catch (RejectedExecutionException error) {
+
+            // Return ERROR Response 503 Service Unavailable
+            return Utiles.generateResponse(
+                HttpStatus.SERVICE_UNAVAILABLE, 
+                HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase(), 
+                error.getMessage()
+            );
+
          } catch (Exception error) {
 
             // Return ERROR Response 500 Internal Server Error
@@ -103,6 +165,116 @@ public class TransactionController {
          }
     }
 
+    /**
+     * Used to CREATE a batch of Transactions and add them to the DB in one DB transaction.
+     * Strategy: Validate every item, Try add all Transactions to DB with JDBC batching, Catch errors if any.
+     * Steps:
+     *    1 -> If batch is NULL or empty return ERROR Response with 400 Bad Request Status with message
+     *    2 -> If any item has ERRORS return ERROR Response with 400 Bad Request Status with per item ERRORS
+     *      ELSE
+     *    3 -> Try add all Transactions to DB (saveAll -> batched inserts, ids from transactions_seq)
+     *    4 -> If added to DB OK then return SUCCESS Response with 200 Ok status with Transactions List
+     *    5 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
+     * @param transactions type List<Transaction> from Request Body
+     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | ERROR Response 400 Bad Request | ERROR 500 Internal Server Error
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createBatch(@RequestBody List<Transaction> transactions) {
+
+        // Check batch is not empty
+        if(transactions == null || transactions.size() == 0) {
+            return Utiles.generateResponse(
+                HttpStatus.BAD_REQUEST,
+                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                "Transactions batch cannot be empty."
+            );
+        }
+
+        // Get errors for every item, keyed by its position in the batch
+        List<Map<String, Object>> itemErrors = new ArrayList<>();
+        for(int index = 0; index < transactions.size(); index++) {
+            ArrayList<String> errors = validate(transactions.get(index));
+            if(errors.size() > 0) {
+                Map<String, Object> itemError = new HashMap<String, Object>();
+                itemError.put("index", index);
+                itemError.put("errors", errors);
+                itemErrors.add(itemError);
+            }
+        }
+
+        // Return ERROR Response 400 Bad Request, nothing is written
+        if(itemErrors.size() > 0) {
+            return Utiles.generateResponse(
+                HttpStatus.BAD_REQUEST,
+                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                itemErrors
+            );
+        }
+
+        try {
+            // Add Transactions to DB
+            List<Transaction> createdTransactions = transactionService.createAll(transactions);
+
+            // Return SUCCESS Response 200 OK
+            return Utiles.generateResponse(
+                HttpStatus.OK,
+                "Success creating " + createdTransactions.size() + " Transactions.",
+                createdTransactions
+            );
+
+        } catch (Exception error) {
+
+            // Return ERROR Response 500 Internal Server Error
+            return Utiles.generateResponse(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                error.getMessage(),
+                "Failed to add Transactions to DB."
+            );
+        }
+    }
+
+    /**
+     * Used to IMPORT a bank statement streamed as NDJSON or CSV and add its Transactions to the DB.
+     * Strategy: Read the body one record at a time, Validate each record, Write valid ones in chunks, Catch errors if any.
+     * Steps:
+     *    1 -> Pick the parser from the Content-Type (application/x-ndjson | text/csv)
+     *    2 -> Try import the stream with TransactionImportService (per line errors are collected, not thrown)
+     *    3 -> Return SUCCESS Response with 200 Ok status with the ImportReport
+     *    4 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
+     * @param contentType type String from the Content-Type header
+     * @param body type InputStream -> The request body, never buffered as a whole
+     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | ERROR 500 Internal Server Error
+     */
+    @PostMapping(value="/import", consumes={"application/x-ndjson", "text/csv"})
+    public ResponseEntity<Object> importStatement(
+        @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+        InputStream body
+    ) {
+        try {
+            // Pick the parser
+            String format = contentType.startsWith("text/csv") ? TransactionImportService.CSV : TransactionImportService.NDJSON;
+
+            // Import Transactions
+            ImportReport report = transactionImportService.importStream(body, format);
+
+            // Return SUCCESS Response 200 OK
+            return Utiles.generateResponse(
+                HttpStatus.OK,
+                "Imported " + report.getImported() + " of " + report.getLinesRead() + " Transactions.",
+                report
+            );
+
+        } catch (Exception error) {
+
+            // Return ERROR Response 500 Internal Server Error
+            return Utiles.generateResponse(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                error.getMessage(),
+                "Failed to import Transactions."
+            );
+        }
+    }
+
     /**
      * Used to GET Transaction by ID from the DB.
      * Strategy: Validate data coming from FE, Try find Transaction in DB, Catch errors if any.
@@ -118,8 +290,8 @@ public class TransactionController {
     public ResponseEntity<Object> get(@RequestParam(name="id") Long id) {
 
         try {
-            // Find transaction
-            Optional<Transaction> transaction = transactionRepository.findById(id);
+            // Find transaction (cached)
+            Optional<Transaction> transaction = transactionService.findById(id);
 
             // If transaction not found return 404 ERROR
             if(!transaction.isPresent()) {
@@ -153,22 +325,28 @@ public class TransactionController {
      * Used to GET all Transactions by User ID and filtered by Reference Like query from the DB.
      * Strategy: Validate data coming from FE, Try find All Transactions Matching in DB, Catch errors if any.
      * Steps: 
-     *    1 -> Try find All Transactions Matching in DB
-     *    2 -> If not found then return ERROR Response with 404 Not Found Error and Message.
-     *    3 -> Else return SUCCESS Response with 200 Ok status with All Transactions Matching List
-     *    4 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
+     *    1 -> If If-None-Match holds the ETag of the User's current version return 304 Not Modified, no DB query
+     *    2 -> Try find All Transactions Matching in DB
+     *    3 -> If not found then return ERROR Response with 404 Not Found Error and Message.
+     *    4 -> Else return SUCCESS Response with 200 Ok status with All Transactions Matching List and its ETag
+     *    5 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
      * @param userId type Long
      * @param query type String
-     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | ERROR Response 400 Bad Request | ERROR 500 Internal Server Error
+     * @param webRequest type WebRequest -> Conditional request headers
+     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | 304 Not Modified | ERROR Response 400 Bad Request | ERROR 500 Internal Server Error
      */
     @GetMapping(value="/get", params={"userId", "query"})
     public ResponseEntity<Object> getFiltered(
         @RequestParam(name="userId") Long userId,
-        @RequestParam(name="query") String query
+        @RequestParam(name="query") String query,
+        WebRequest webRequest
     ) {
         try {
+            // Nothing written for this User since the client's copy, answer 304 (ETag taken before the read)
+            if(webRequest.checkNotModified(userVersionService.etag(userId, "getFiltered", query))) return null;
+
             // Find Transactions List
-            List<Transaction> filteredTransactions = transactionRepository.findByUserIdAndReferenceContaining(userId, query);
+            List<TransactionView> filteredTransactions = transactionRepository.findByUserIdAndReferenceContaining(userId, query);
 
             // If Transactions List is empty return 404 ERROR
             if(filteredTransactions.size() == 0) {
@@ -197,15 +375,179 @@ public class TransactionController {
         }
     }
 
+    /**
+     * Used to GET one page of Transactions by User ID and filtered by Reference Like query from the DB.
+     * Strategy: Validate data coming from FE, Try seek the page after the cursor in DB, Catch errors if any.
+     * Steps:
+     *    1 -> If limit is not between 1 and 1000 or the cursor is invalid return ERROR Response with 400 Bad Request
+     *    2 -> Try find limit + 1 Transactions after (date, id) of the cursor, ordered by (date, id)
+     *    3 -> If not found then return ERROR Response with 404 Not Found Error and Message.
+     *    4 -> Else return SUCCESS Response with 200 Ok status with the page and the next cursor (null on the last page)
+     *    5 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
+     * No OFFSET is used so every page costs the same index seek.
+     * @param userId type Long
+     * @param query type String
+     * @param limit type int
+     * @param cursor type String | null -> The next value of the previous page
+     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | ERROR Response 400 Bad Request | ERROR 404 Not Found | ERROR 500 Internal Server Error
+     */
+    @GetMapping(value="/get", params={"userId", "query", "limit"})
+    public ResponseEntity<Object> getFilteredPage(
+        @RequestParam(name="userId") Long userId,
+        @RequestParam(name="query") String query,
+        @RequestParam(name="limit") int limit,
+        @RequestParam(name="cursor", required=false) String cursor
+    ) {
+        // Validate limit
+        if(!Cursors.isValidLimit(limit)) {
+            return Utiles.generateResponse(
+                HttpStatus.BAD_REQUEST,
+                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                "Limit must be between 1 and " + Cursors.MAX_LIMIT + "."
+            );
+        }
+
+        // Seek position, the first page starts before any date
+        java.sql.Date afterDate = FIRST_DATE;
+        long afterId = 0;
+        try {
+            if(cursor != null) {
+                Cursors.Cursor after = Cursors.decode(cursor);
+                afterDate = java.sql.Date.valueOf(after.key());
+                afterId = after.id();
+            }
+        } catch (IllegalArgumentException error) {
+            return Utiles.generateResponse(
+                HttpStatus.BAD_REQUEST,
+                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                "Invalid cursor."
+            );
+        }
+
+        try {
+            // Find one row more than asked to know if there is a next page
+            List<Transaction> page = transactionRepository.findPageByUserIdAndReferenceContaining(
+                userId, query, afterDate, afterId, Limit.of(limit + 1)
+            );
+
+            // If Transactions List is empty return 404 ERROR
+            if(page.size() == 0) {
+                return Utiles.generateResponse(
+                    HttpStatus.NOT_FOUND,
+                    HttpStatus.NOT_FOUND.getReasonPhrase(),
+                    "There seams there isn't matches in the DB..."
+                );
+            }
+
+            // Else Return SUCCESS Response 200 OK
+            return Utiles.generateResponse(
+                HttpStatus.OK,
+                "Success getting Transactions.",
+                page.size() > limit ? page.subList(0, limit) : page,
+                nextCursor(page, limit)
+            );
+
+        } catch (Exception error) {
+
+            // Return ERROR Response 500 Internal Server Error
+            return Utiles.generateResponse(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                error.getMessage(),
+                "Failed to get Transactions from DB."
+            );
+        }
+    }
+
+    /**
+     * Used to SEARCH Transactions by User ID whose Reference contains the query, best matches first.
+     * Strategy: Validate data coming from FE, Try rank the matches with the trigram index in DB, Catch errors if any.
+     * Steps:
+     *    1 -> If query is blank or limit is not between 1 and 1000 return ERROR Response with 400 Bad Request
+     *    2 -> Try find up to limit Transactions matching ILIKE %query%, ranked by trigram (word) similarity
+     *    3 -> If not found then return ERROR Response with 404 Not Found Error and Message.
+     *    4 -> Else return SUCCESS Response with 200 Ok status with the ranked Transactions List
+     *    5 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
+     * @param userId type Long
+     * @param query type String
+     * @param limit type int -> 20 by default
+     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | ERROR Response 400 Bad Request | ERROR 404 Not Found | ERROR 500 Internal Server Error
+     */
+    @GetMapping(value="/search", params={"userId", "query"})
+    public ResponseEntity<Object> search(
+        @RequestParam(name="userId") Long userId,
+        @RequestParam(name="query") String query,
+        @RequestParam(name="limit", defaultValue="20") int limit
+    ) {
+        // Validate query and limit
+        if(query.isBlank() || !Cursors.isValidLimit(limit)) {
+            return Utiles.generateResponse(
+                HttpStatus.BAD_REQUEST,
+                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                "Query cannot be empty and limit must be between 1 and " + Cursors.MAX_LIMIT + "."
+            );
+        }
+
+        try {
+            // Find ranked Transactions List
+            List<Transaction> matches = transactionRepository.searchByReference(
+                userId, query, Utiles.likePattern(query), limit
+            );
+
+            // If Transactions List is empty return 404 ERROR
+            if(matches.size() == 0) {
+                return Utiles.generateResponse(
+                    HttpStatus.NOT_FOUND,
+                    HttpStatus.NOT_FOUND.getReasonPhrase(),
+                    "There seams there isn't matches in the DB..."
+                );
+            }
+
+            // Else Return SUCCESS Response 200 OK
+            return Utiles.generateResponse(
+                HttpStatus.OK,
+                "Success searching Transactions.",
+                matches
+            );
+
+        } catch (Exception error) {
+
+            // Return ERROR Response 500 Internal Server Error
+            return Utiles.generateResponse(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                error.getMessage(),
+                "Failed to search Transactions in DB."
+            );
+        }
+    }
+
+    /**
+     * Used to GET all Transactions by User ID between two dates from the DB.
+     * Strategy: Validate data coming from FE, Try find All Transactions in range in DB, Catch errors if any.
+     * Steps:
+     *    1 -> If If-None-Match holds the ETag of the User's current version return 304 Not Modified, no DB query
+     *    2 -> Try find All Transactions in range in DB
+     *    3 -> If not found then return ERROR Response with 404 Not Found Error.
+     *    4 -> Else return SUCCESS Response with 200 Ok status with the Transactions List and its ETag
+     *    5 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
+     * @param userId type Long
+     * @param start type String (yyyy-MM-dd)
+     * @param end type String (yyyy-MM-dd)
+     * @param webRequest type WebRequest -> Conditional request headers
+     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | 304 Not Modified | ERROR 404 Not Found | ERROR 500 Internal Server Error
+     */
     @GetMapping(value="/get", params={"userId", "start", "end"})
     public ResponseEntity<Object> getBetweenDates(
         @RequestParam(name="userId") Long userId,
         @RequestParam(name="start") String start,
-        @RequestParam(name="end") String end
+        @RequestParam(name="end") String end,
+        WebRequest webRequest
     ) {
         try {
+            // Nothing written for this User since the client's copy, answer 304 (ETag taken before the read)
+            if(webRequest.checkNotModified(userVersionService.etag(userId, "getBetweenDates", start, end))) return null;
+
             // Find Transactions List
-            List<Transaction> filteredTransactions = transactionRepository.findByUserIdAndDateBetween(userId, new SimpleDateFormat("yyyy-MM-dd").parse(start), new SimpleDateFormat("yyyy-MM-dd").parse(end));
+            List<TransactionView> filteredTransactions = transactionRepository.findByUserIdAndDateBetween(userId, new SimpleDateFormat("yyyy-MM-dd").parse(start), new SimpleDateFormat("yyyy-MM-dd").parse(end));
 
             // If Transactions List is empty return 404 ERROR
             if(filteredTransactions.size() == 0) {
@@ -234,19 +576,326 @@ public class TransactionController {
         }
     }
 
+    /**
+     * Used to GET one page of Transactions by User ID between two dates from the DB.
+     * Strategy: Validate data coming from FE, Try seek the page after the cursor in DB, Catch errors if any.
+     * Steps:
+     *    1 -> If limit is not between 1 and 1000 or the cursor is invalid return ERROR Response with 400 Bad Request
+     *    2 -> Try find limit + 1 Transactions after (date, id) of the cursor, ordered by (date, id)
+     *    3 -> If not found then return ERROR Response with 404 Not Found Error and Message.
+     *    4 -> Else return SUCCESS Response with 200 Ok status with the page and the next cursor (null on the last page)
+     *    5 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
+     * @param userId type Long
+     * @param start type String (yyyy-MM-dd)
+     * @param end type String (yyyy-MM-dd)
+     * @param limit type int
+     * @param cursor type String | null -> The next value of the previous page
+     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | ERROR Response 400 Bad Request | ERROR 404 Not Found | ERROR 500 Internal Server Error
+     */
+    @GetMapping(value="/get", params={"userId", "start", "end", "limit"})
+    public ResponseEntity<Object> getBetweenDatesPage(
+        @RequestParam(name="userId") Long userId,
+        @RequestParam(name="start") String start,
+        @RequestParam(name="end") String end,
+        @RequestParam(name="limit") int limit,
+        @RequestParam(name="cursor", required=false) String cursor
+    ) {
+        // Validate limit
+        if(!Cursors.isValidLimit(limit)) {
+            return Utiles.generateResponse(
+                HttpStatus.BAD_REQUEST,
+                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                "Limit must be between 1 and " + Cursors.MAX_LIMIT + "."
+            );
+        }
+
+        try {
+            Date startDate = new SimpleDateFormat("yyyy-MM-dd").parse(start);
+            Date endDate = new SimpleDateFormat("yyyy-MM-dd").parse(end);
+
+            // Seek position, the first page starts at the start date
+            Date afterDate = startDate;
+            long afterId = 0;
+            if(cursor != null) {
+                try {
+                    Cursors.Cursor after = Cursors.decode(cursor);
+                    afterDate = java.sql.Date.valueOf(after.key());
+                    afterId = after.id();
+                } catch (IllegalArgumentException error) {
+                    return Utiles.generateResponse(
+                        HttpStatus.BAD_REQUEST,
+                        HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                        "Invalid cursor."
+                    );
+                }
+            }
+
+            // Find one row more than asked to know if there is a next page
+            List<Transaction> page = transactionRepository.findPageByUserIdAndDateBetween(
+                userId, startDate, endDate, afterDate, afterId, Limit.of(limit + 1)
+            );
+
+            // If Transactions List is empty return 404 ERROR
+            if(page.size() == 0) {
+                return Utiles.generateResponse(
+                    HttpStatus.NOT_FOUND,
+                    HttpStatus.NOT_FOUND.getReasonPhrase(),
+                    null
+                );
+            }
+
+            // Else Return SUCCESS Response 200 OK
+            return Utiles.generateResponse(
+                HttpStatus.OK,
+                "Success getting Transactions.",
+                page.size() > limit ? page.subList(0, limit) : page,
+                nextCursor(page, limit)
+            );
+
+        } catch (Exception error) {
+
+            // Return ERROR Response 500 Internal Server Error
+            return Utiles.generateResponse(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                error.getMessage(),
+                "Failed to get Transactions from DB."
+            );
+        }
+    }
+
+    /**
+     * Used to GET the daily totals of a User between two dates from the daily_totals rollup.
+     * Strategy: Validate data coming from FE, Try sum the pre-aggregated rows by day in DB, Catch errors if any.
+     * Steps:
+     *    1 -> Try find the daily totals, optionally only for one Account and / or one type
+     *    2 -> Return SUCCESS Response with 200 Ok status with a [{ date, total, count }] List (empty days are skipped)
+     *    3 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
+     * Reads at most one row per Account, day and type instead of every Transaction in the range.
+     * @param userId type Long
+     * @param start type String (yyyy-MM-dd)
+     * @param end type String (yyyy-MM-dd)
+     * @param accountId type Long | null
+     * @param type type String | null
+     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | ERROR 500 Internal Server Error
+     */
+    @GetMapping(value="/daily", params={"userId", "start", "end"})
+    public ResponseEntity<Object> getDailyTotals(
+        @RequestParam(name="userId") Long userId,
+        @RequestParam(name="start") String start,
+        @RequestParam(name="end") String end,
+        @RequestParam(name="accountId", required=false) Long accountId,
+        @RequestParam(name="type", required=false) String type
+    ) {
+        try {
+            // Find Daily Totals List
+            List<DailySpend> dailyTotals = dailyTotalRepository.findDailySpend(
+                userId,
+                new SimpleDateFormat("yyyy-MM-dd").parse(start),
+                new SimpleDateFormat("yyyy-MM-dd").parse(end),
+                accountId,
+                type
+            );
+
+            // Return SUCCESS Response 200 OK
+            return Utiles.generateResponse(
+                HttpStatus.OK,
+                "Success getting daily totals.",
+                dailyTotals
+            );
+
+        } catch (Exception error) {
+
+            // Return ERROR Response 500 Internal Server Error
+            return Utiles.generateResponse(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                error.getMessage(),
+                "Failed to get daily totals from DB."
+            );
+        }
+    }
+
+    /**
+     * Used to GET a User's spend between two dates grouped by type, Account and / or period.
+     * Strategy: Validate the group keys, Try one GROUP BY over the daily_totals rollup in DB, Catch errors if any.
+     * Steps:
+     *    1 -> Try group the range by the requested keys (by=type,accountId and period=day|week|month|year)
+     *    2 -> If a key or period is unknown return ERROR Response with 400 Bad Request Status with message
+     *    3 -> Else return SUCCESS Response with 200 Ok status with a [{ type, accountId, period, total, count, average }] List
+     *    4 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
+     * Keys that were not grouped by are left out of each group, no key at all gives one group for the whole range.
+     * @param userId type Long
+     * @param start type String (yyyy-MM-dd)
+     * @param end type String (yyyy-MM-dd)
+     * @param by type List<String> | null -> any of type, accountId
+     * @param period type String | null -> day, week (from Monday), month or year
+     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | ERROR Response 400 Bad Request | ERROR 500 Internal Server Error
+     */
+    @GetMapping(value="/groups", params={"userId", "start", "end"})
+    public ResponseEntity<Object> getGroups(
+        @RequestParam(name="userId") Long userId,
+        @RequestParam(name="start") String start,
+        @RequestParam(name="end") String end,
+        @RequestParam(name="by", required=false) List<String> by,
+        @RequestParam(name="period", required=false) String period
+    ) {
+        try {
+            // Group the range
+            List<SpendGroup> groups = transactionService.group(
+                userId,
+                new SimpleDateFormat("yyyy-MM-dd").parse(start),
+                new SimpleDateFormat("yyyy-MM-dd").parse(end),
+                by != null ? by : List.of(),
+                period
+            );
+
+            // Return SUCCESS Response 200 OK
+            return Utiles.generateResponse(
+                HttpStatus.OK,
+                "Success getting Transactions groups.",
+                groups
+            );
+
+        } catch (IllegalArgumentException error) {
+
+            // Return ERROR Response 400 Bad Request
+            return Utiles.generateResponse(
+                HttpStatus.BAD_REQUEST,
+                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                error.getMessage()
+            );
+
+        } catch (Exception error) {
+
+            // Return ERROR Response 500 Internal Server Error
+            return Utiles.generateResponse(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                error.getMessage(),
+                "Failed to get Transactions groups from DB."
+            );
+        }
+    }
+
+    /**
+     * Used to GET the total, count and smallest / largest amount of a User's Transactions between two dates.
+     * Strategy: Answered from the in-memory analytics store when enabled, else by one aggregate query, Catch errors if any.
+     * Steps:
+     *    1 -> If dates cannot be parsed return ERROR Response with 400 Bad Request Status
+     *    2 -> Try summarize the range, optionally for one Account and / or type
+     *    3 -> Return SUCCESS Response with 200 Ok status with the summary (count 0 when nothing matched)
+     *    4 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
+     * @param userId type Long
+     * @param start type String (yyyy-MM-dd)
+     * @param end type String (yyyy-MM-dd)
+     * @param accountId type Long | null
+     * @param type type String | null
+     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | ERROR Response 400 Bad Request | ERROR 500 Internal Server Error
+     */
+    @GetMapping(value="/summary", params={"userId", "start", "end"})
+    public ResponseEntity<Object> getSummary(
+        @RequestParam(name="userId") Long userId,
+        @RequestParam(name="start") String start,
+        @RequestParam(name="end") String end,
+        @RequestParam(name="accountId", required=false) Long accountId,
+        @RequestParam(name="type", required=false) String type
+    ) {
+        // Parse dates
+        java.sql.Date startDate;
+        java.sql.Date endDate;
+        try {
+            startDate = java.sql.Date.valueOf(start);
+            endDate = java.sql.Date.valueOf(end);
+        } catch (IllegalArgumentException error) {
+            return Utiles.generateResponse(
+                HttpStatus.BAD_REQUEST,
+                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                "Dates must be formatted as yyyy-MM-dd."
+            );
+        }
+
+        try {
+            // Summarize range
+            RangeSummary summary = transactionService.summarize(userId, startDate, endDate, accountId, type);
+
+            // Return SUCCESS Response 200 OK
+            return Utiles.generateResponse(
+                HttpStatus.OK,
+                "Success getting Transactions summary.",
+                summary
+            );
+
+        } catch (Exception error) {
+
+            // Return ERROR Response 500 Internal Server Error
+            return Utiles.generateResponse(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                error.getMessage(),
+                "Failed to get Transactions summary."
+            );
+        }
+    }
+
+    /**
+     * Used to EXPORT all Transactions by User ID between two dates as a stream.
+     * Strategy: Validate data coming from FE, Stream Transactions from a DB cursor into the response body.
+     * Steps:
+     *    1 -> If format is not json | ndjson | csv or dates cannot be parsed return ERROR Response with 400 Bad Request Status
+     *    2 -> Else return 200 Ok status with a StreamingResponseBody that writes each row as it is read
+     * Unlike getBetweenDates the rows are never held in a List, so multi year ranges keep a flat heap.
+     * @param userId type Long
+     * @param start type String (yyyy-MM-dd)
+     * @param end type String (yyyy-MM-dd)
+     * @param format type String -> json (default) | ndjson | csv
+     * @return ResponseEntity<StreamingResponseBody> -> either SUCCESS 200 ok stream | ERROR Response 400 Bad Request
+     */
+    @GetMapping(value="/export", params={"userId", "start", "end"})
+    public ResponseEntity<StreamingResponseBody> export(
+        @RequestParam(name="userId") Long userId,
+        @RequestParam(name="start") String start,
+        @RequestParam(name="end") String end,
+        @RequestParam(name="format", defaultValue="json") String format
+    ) {
+        // Validate format
+        if(!TransactionExportService.isSupported(format)) {
+            return errorStream(HttpStatus.BAD_REQUEST, "Export format must be json, ndjson or csv.");
+        }
+
+        // Parse dates
+        Date startDate;
+        Date endDate;
+        try {
+            startDate = new SimpleDateFormat("yyyy-MM-dd").parse(start);
+            endDate = new SimpleDateFormat("yyyy-MM-dd").parse(end);
+        } catch (ParseException error) {
+            return errorStream(HttpStatus.BAD_REQUEST, "Dates must be formatted as yyyy-MM-dd.");
+        }
+
+        // Pick Content Type
+        MediaType contentType = TransactionExportService.CSV.equals(format) ? new MediaType("text", "csv")
+            : TransactionExportService.NDJSON.equals(format) ? MediaType.APPLICATION_NDJSON
+            : MediaType.APPLICATION_JSON;
+
+        // Return SUCCESS 200 OK stream
+        return ResponseEntity.ok()
+            .contentType(contentType)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions." + format + "\"")
+            .body(transactionExportService.export(userId, startDate, endDate, format));
+    }
+
     /**
      * Used to UPDATE Transaction by Id in the DB.
      * Strategy: Validate data coming from FE, Try update Transaction in DB, Catch Errors if any.
      * Steps: 
      *    1 -> If Request is NULL return ERROR Response with 400 Bad Request Status with message
-     *    2 -> Try find Transaction by Id in DB
-     *    3 -> If not found return ERROR Response 404 Not Found with Message
-     *    4 -> Else Update Transaction in DB
-     *    5 -> If updated in DB then return SUCCESS Response with 200 Ok status with Transaction Object
-     *    6 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
+     *    2 -> If a field the balance and daily totals need is missing or no partition holds the date
+     *         return ERROR Response with 400 Bad Request Status with ERRORS Array
+     *    3 -> Try find Transaction by Id in DB
+     *    4 -> If not found return ERROR Response 404 Not Found with Message
+     *    5 -> Else Update Transaction in DB
+     *    6 -> If updated in DB then return SUCCESS Response with 200 Ok status with Transaction Object
+     *    7 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
      * @param id type Long from URL Params
      * @param requestBody type TransactionRequest
-     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | ERROR Response 400 Bad Request | ERROR 500 Internal Server Error
+     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | ERROR Response 400 Bad Request | ERROR 404 Not Found | ERROR 500 Internal Server Error
      */
     @PutMapping("/{id}/update")
     public ResponseEntity<Object> update(
@@ -262,12 +911,22 @@ public class TransactionController {
             );
         }
 
+        // Check every field is sent and the new date can be stored
+        ArrayList<String> errors = validate(request);
+        if(errors.size() > 0) {
+            return Utiles.generateResponse(
+                HttpStatus.BAD_REQUEST,
+                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                errors
+            );
+        }
+
         try {
-            // Find billing or Throw Exception
-            Optional<Transaction> transaction = transactionRepository.findById(id);
+            // Update Transaction (and move it between daily totals)
+            Optional<Transaction> updatedTransaction = transactionService.update(id, request);
 
             // If not found return 404 ERROR
-            if(!transaction.isPresent()) {
+            if(!updatedTransaction.isPresent()) {
                 return Utiles.generateResponse(
                     HttpStatus.NOT_FOUND, 
                     HttpStatus.NOT_FOUND.getReasonPhrase(), 
@@ -275,29 +934,79 @@ public class TransactionController {
                 );
             }
 
-            System.out.println(request.getReference());
-            
-            // Set new data
-            transaction.get().setAccountId(Long.parseLong(request.getAccountId()));
-            transaction.get().setReference(request.getReference());
-            transaction.get().setAmount(Double.parseDouble(request.getAmount()));
-            transaction.get().setType(request.getType());
+            // Return SUCCESS Response 200 OK
+            return Utiles.generateResponse(
+                HttpStatus.OK, 
+                "Success updating Transaction.", 
+                updatedTransaction.get()
+            );
+
+        } catch (Exception error) {
 
-            // Parsing String date from request to SQL Date Type
-            Date date = new SimpleDateFormat("yyy-MM-dd").parse(request.getDate());
-            transaction.get().setDate(new java.sql.Date(date.getTime()));
+            // Return ERROR Response 500 Internal Server Error
+            return Utiles.generateResponse(
+                HttpStatus.INTERNAL_SERVER_ERROR,  
+                error.getMessage(), 
+                "Failed to update Transaction in DB."
+            );
+        }
+        
+    }
 
-            // Set new Updated On date
-            transaction.get().setUpdatedOn(new Timestamp(System.currentTimeMillis()));
-            
-            // Update Transaction
-            Transaction updatedTransaction = transactionRepository.save(transaction.get());
+
+    /**
+     * Used to PATCH Transaction by Id in the DB with only the fields sent.
+     * Strategy: One UPDATE ... WHERE id = ? with the fields present, no load-then-save.
+     * Steps: 
+     *    1 -> If Request is NULL or has no fields return ERROR Response with 400 Bad Request Status with message
+     *    2 -> Try patch Transaction in DB
+     *    3 -> If no row updated return ERROR Response 404 Not Found with Message
+     *    4 -> Else return SUCCESS Response with 200 Ok status
+     *    5 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
+     * @param id type Long from URL Params
+     * @param request type TransactionRequest -> NULL fields are left untouched
+     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | ERROR Response 400 Bad Request | ERROR 404 Not Found | ERROR 500 Internal Server Error
+     */
+    @PatchMapping("/{id}/update")
+    public ResponseEntity<Object> patch(
+        @PathVariable Long id, 
+        @RequestBody TransactionRequest request
+    ) {
+        // Check request has something to update
+        if(request == null || (request.getAccountId() == null && request.getReference() == null 
+            && request.getAmount() == null && request.getDate() == null && request.getType() == null)) {
+            return Utiles.generateResponse(
+                HttpStatus.BAD_REQUEST, 
+                HttpStatus.BAD_REQUEST.getReasonPhrase(), 
+                "Request must contain at least one field."
+            );
+        }
+
+        // Check the new date can be stored
+        String dateError = dateError(request.getDate());
+        if(dateError != null) {
+            return Utiles.generateResponse(
+                HttpStatus.BAD_REQUEST,
+                HttpStatus.BAD_REQUEST.getReasonPhrase(),
+                dateError
+            );
+        }
+
+        try {
+            // If not found return 404 ERROR
+            if(!transactionService.patch(id, request)) {
+                return Utiles.generateResponse(
+                    HttpStatus.NOT_FOUND, 
+                    HttpStatus.NOT_FOUND.getReasonPhrase(), 
+                    "Transaction with id " + id + " not found."
+                );
+            }
 
             // Return SUCCESS Response 200 OK
             return Utiles.generateResponse(
                 HttpStatus.OK, 
                 "Success updating Transaction.", 
-                updatedTransaction
+                null
             );
 
         } catch (Exception error) {
@@ -338,20 +1047,17 @@ public class TransactionController {
         }
 
         try {
-            // Find Account
-            Optional<Transaction> transaction = transactionRepository.findById(id);
+            // Delete Transaction (and take it out of its daily total)
+            boolean deleted = transactionService.delete(id);
 
             // If not found return 404 ERROR
-            if(!transaction.isPresent()) {
+            if(!deleted) {
                 return Utiles.generateResponse(
                     HttpStatus.NOT_FOUND, 
                     HttpStatus.NOT_FOUND.getReasonPhrase(), 
                     "Transaction with id " + id + " not found."
                 );
             }
-        
-            // Delete Transaction
-            transactionRepository.delete(transaction.get());
 
             // Return SUCCESS Response 200 OK
             return Utiles.generateResponse(
@@ -370,5 +1076,131 @@ public class TransactionController {
             );
         }
     }
+
+    /**
+     * Used to DELETE every Transaction of a User between two dates, optionally of one Account only.
+     * Strategy: Validate data coming from FE, Try delete the Transactions with set based DELETEs, Catch Errors if any.
+     * Steps: 
+     *    1 -> If start is after end return ERROR Response with 400 Bad Request Status with message
+     *    2 -> Try delete the matching Transactions, no Transaction is loaded into memory
+     *    3 -> Return SUCCESS Response with 200 Ok status with the number of Transactions deleted
+     *    4 -> Catch Server side errors -> If any then return ERRO Response with 500 Internal Server Error with Message.
+     * @param userId type Long
+     * @param accountId type Long | null -> every Account of the User
+     * @param start type String (yyyy-MM-dd)
+     * @param end type String (yyyy-MM-dd)
+     * @return ResponseEntity<Object> -> either SUCCESS Response 200 ok | ERROR Response 400 Bad Request | ERROR 500 Internal Server Error
+     */
+    @DeleteMapping(value="/delete", params={"userId", "start", "end"})
+    public ResponseEntity<Object> deleteByFilter(
+        @RequestParam(name="userId") Long userId,
+        @RequestParam(name="accountId", required=false) Long accountId,
+        @RequestParam(name="start") String start,
+        @RequestParam(name="end") String end
+    ) {
+        try {
+            // Parse dates
+            Date startDate = new SimpleDateFormat("yyyy-MM-dd").parse(start);
+            Date endDate = new SimpleDateFormat("yyyy-MM-dd").parse(end);
+
+            // Validate range
+            if(startDate.after(endDate)) {
+                return Utiles.generateResponse(
+                    HttpStatus.BAD_REQUEST, 
+                    HttpStatus.BAD_REQUEST.getReasonPhrase(), 
+                    "Start date cannot be after end date."
+                );
+            }
+
+            // Delete Transactions (and take them out of balances and daily totals)
+            int deleted = transactionService.deleteByFilter(userId, accountId, startDate, endDate);
+
+            // Return SUCCESS Response 200 OK
+            return Utiles.generateResponse(
+                HttpStatus.OK, 
+                "Success deleting " + deleted + " Transactions.", 
+                deleted
+            );
+
+        } catch (Exception error) {
+
+            // Return ERROR Response 500 Internal Server Error
+            return Utiles.generateResponse(
+                HttpStatus.INTERNAL_SERVER_ERROR,  
+                error.getMessage(), 
+                "Failed to delete Transactions from DB."
+            );
+        }
+    }
+
+    // HELPERS ////////////////
+
+    /**
+     * Used to validate a Transaction to create: validateTransaction plus the dates the partitioned table cannot hold.
+     * @param transaction type Transaction
+     * @return ArrayList<String> -> errors
+     */
+    private ArrayList<String> validate(Transaction transaction) {
+        ArrayList<String> errors = Utiles.validateTransaction(transaction);
+        String dateError = partitionMaintenanceService == null ? null : partitionMaintenanceService.dateError(transaction.getDate());
+        if(dateError != null) errors.add(dateError);
+        return errors;
+    }
+
+    /**
+     * Used to validate a PUT, which replaces the whole Transaction: the new account, amount, date and type
+     * are written to the balance and the daily_totals key (NOT NULL), so none may be missing.
+     * @param request type TransactionRequest
+     * @return ArrayList<String> -> errors
+     */
+    private ArrayList<String> validate(TransactionRequest request) {
+        ArrayList<String> errors = new ArrayList<>();
+        if(request.getAccountId() == null) errors.add("Account ID cannot be NULL.");
+        if(request.getAmount() == null) errors.add("Amount cannot be NULL.");
+        if(request.getDate() == null) errors.add("Date cannot be NULL.");
+        if(request.getType() == null) errors.add("Type cannot be NULL.");
+        String dateError = dateError(request.getDate());
+        if(dateError != null) errors.add(dateError);
+        return errors;
+    }
+
+    /**
+     * Used to check the yyyy-MM-dd date of an update can be stored, a date that does not parse is left to the update.
+     * @param date type String | null
+     * @return String | null -> The error, null when the date can be stored or is not sent
+     */
+    private String dateError(String date) {
+        if(date == null || partitionMaintenanceService == null) return null;
+        try {
+            return partitionMaintenanceService.dateError(java.sql.Date.valueOf(date));
+        } catch (IllegalArgumentException error) {
+            return null;
+        }
+    }
+
+    /**
+     * Used to build the next cursor from a page fetched with limit + 1 rows.
+     * @param page type List<Transaction>
+     * @param limit type int
+     * @return String | null -> null when there is no next page
+     */
+    private String nextCursor(List<Transaction> page, int limit) {
+        if(page.size() <= limit) return null;
+        Transaction last = page.get(limit - 1);
+        return Cursors.encode(last.getDate().toString(), last.getId());
+    }
+
+    /**
+     * Used to return the usual JSON error Response from a handler that streams its body.
+     * @param status type HttpStatus
+     * @param message type String
+     * @return ResponseEntity<StreamingResponseBody>
+     */
+    private ResponseEntity<StreamingResponseBody> errorStream(HttpStatus status, String message) {
+        Object body = Utiles.generateResponse(status, status.getReasonPhrase(), message).getBody();
+        return ResponseEntity.status(status)
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(out -> objectMapper.writeValue(out, body));
+    }
 }
 
@@ -0,0 +1,10 @@
+package com.elphie.accounts.definitions;
+
+import java.util.List;
+
+import com.elphie.accounts.models.Account;
+import com.elphie.accounts.models.Transaction;
+
+// One Account of the home screen with its month-to-date total and its latest Transactions, newest first
+public record AccountDashboard(Account account, Money monthTotal, long monthCount, List<Transaction> latest) {
+}
@@ -0,0 +1,11 @@
+package com.elphie.accounts.definitions;
+
+import java.sql.Timestamp;
+
+// Read-only row of the Account list endpoint, same JSON as the Account entity
+// (the Plaid access token and cursor are never read)
+public record AccountView(
+    Long id, Long userId, String name, String type, String iban, Money balance,
+    String plaidId, Timestamp createdOn, Timestamp updatedOn
+) {
+}
@@ -0,0 +1,12 @@
+package com.elphie.accounts.definitions;
+
+import java.sql.Date;
+
+// One point of the daily totals chart, read from the daily_totals rollup
+public record DailySpend(Date date, Money total, Long count) {
+
+    // Row of the JPQL constructor expression, SUM(total) comes back in minor units
+    public DailySpend(Date date, Long total, Long count) {
+        this(date, Money.ofMinor(total), count);
+    }
+}
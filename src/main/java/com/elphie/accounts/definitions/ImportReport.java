@@ -0,0 +1,52 @@
+package com.elphie.accounts.definitions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class ImportReport {
+
+    // PROPERTIES ////////////////
+    private long linesRead;
+    private long imported;
+    private long failed;
+    private long chunks;
+    private boolean errorsTruncated;
+    private List<Map<String, Object>> errors = new ArrayList<>();
+
+    // HELPERS ////////////////
+
+    /**
+     * Used to record a rejected line, keeping at most maxErrors details so the report stays bounded.
+     * @param line type long -> 1 based line number in the uploaded file
+     * @param lineErrors type List<String>
+     * @param maxErrors type int
+     */
+    public void addError(long line, List<String> lineErrors, int maxErrors) {
+        failed++;
+        if(errors.size() >= maxErrors) {
+            errorsTruncated = true;
+            return;
+        }
+        Map<String, Object> error = new HashMap<String, Object>();
+        error.put("line", line);
+        error.put("errors", lineErrors);
+        errors.add(error);
+    }
+
+    // GETTERS & SETTERS ////////////////
+    public long getLinesRead() { return linesRead; }
+    public void setLinesRead(long linesRead) { this.linesRead = linesRead; }
+    public long getImported() { return imported; }
+    public void setImported(long imported) { this.imported = imported; }
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+    public long getChunks() { return chunks; }
+    public void setChunks(long chunks) { this.chunks = chunks; }
+    public boolean isErrorsTruncated() { return errorsTruncated; }
+    public void setErrorsTruncated(boolean errorsTruncated) { this.errorsTruncated = errorsTruncated; }
+    public List<Map<String, Object>> getErrors() { return errors; }
+    public void setErrors(List<Map<String, Object>> errors) { this.errors = errors; }
+}
@@ -0,0 +1,87 @@
+package com.elphie.accounts.definitions;
+
+// =============================================================================
+// File Name: definitions/Money.java
+// File Description:
+// This file contains the Money value: an amount in integer minor units
+// (cents), the DB and every sum work on the long, FE reads and writes the
+// decimal (12.50). Single currency, SCALE digits after the point.
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+// =============================================================================
+// Record
+// =============================================================================
+public record Money(long minor) implements Comparable<Money> {
+
+    // PROPERTIES ////////////////
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    // FACTORIES ////////////////
+
+    public static Money ofMinor(long minor) {
+        return minor == 0 ? ZERO : new Money(minor);
+    }
+
+    /**
+     * Used to read a decimal amount exactly, 12.5 -> 1250.
+     * @param amount type BigDecimal
+     * @return Money
+     * @throws IllegalArgumentException when the amount has more than SCALE decimals or does not fit a long
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal amount) {
+        try {
+            return ofMinor(amount.movePointRight(SCALE).longValueExact());
+        } catch (ArithmeticException error) {
+            throw new IllegalArgumentException("Amount " + amount.toPlainString() + " cannot have more than " + SCALE + " decimals.");
+        }
+    }
+
+    /**
+     * Used to parse a decimal amount from FE / files, "12.50" -> 1250.
+     * @param amount type String
+     * @return Money
+     * @throws IllegalArgumentException when the text is not a decimal amount
+     */
+    public static Money parse(String amount) {
+        try {
+            return of(new BigDecimal(amount.trim()));
+        } catch (NumberFormatException error) {
+            throw new IllegalArgumentException("Amount " + amount + " is not a number.");
+        }
+    }
+
+    // METHODS ////////////////
+
+    public Money plus(Money other) {
+        return ofMinor(Math.addExact(minor, other.minor));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minor));
+    }
+
+    @JsonValue
+    public BigDecimal toDecimal() {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minor, other.minor);
+    }
+
+    @Override
+    public String toString() {
+        return toDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,13 @@
+package com.elphie.accounts.definitions;
+
+// Total, count and smallest / largest amount of the Transactions in a date range,
+// min and max are null when the range is empty
+public record RangeSummary(Money total, long count, Money min, Money max) {
+
+    public static final RangeSummary EMPTY = new RangeSummary(Money.ZERO, 0, null, null);
+
+    // Row of the JPQL constructor expression, SUM(amount) comes back in minor units and null on an empty range
+    public RangeSummary(Long total, Long count, Money min, Money max) {
+        this(total == null ? Money.ZERO : Money.ofMinor(total), count, min, max);
+    }
+}
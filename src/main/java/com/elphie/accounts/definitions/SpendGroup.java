@@ -0,0 +1,15 @@
+package com.elphie.accounts.definitions;
+
+import java.sql.Date;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// One group of the spend breakdown, read from the daily_totals rollup,
+// the keys that were not grouped by are null and left out of the JSON
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SpendGroup(String type, Long accountId, Date period, Money total, Long count, Money average) {
+
+    public SpendGroup(String type, Long accountId, Date period, long total, long count) {
+        this(type, accountId, period, Money.ofMinor(total), count, Money.ofMinor(Math.round((double) total / count)));
+    }
+}
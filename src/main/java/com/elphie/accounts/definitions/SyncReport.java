@@ -0,0 +1,86 @@
+package com.elphie.accounts.definitions;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class SyncReport {
+
+    // Failed Accounts detailed in the report, the count keeps going past it
+    private static final int MAX_ERRORS = 100;
+
+    // PROPERTIES ////////////////
+    private long accounts;
+    private long failedAccounts;
+    private long pages;
+    private long restarts;
+    private long added;
+    private long modified;
+    private long removed;
+    private long millis;
+    private List<Map<String, Object>> errors = new ArrayList<>();
+
+    // HELPERS ////////////////
+
+    /**
+     * Used to count one page written by TransactionService.upsertExternal.
+     * @param counts type int[] -> { inserted, updated, deleted }
+     */
+    public void addPage(int[] counts) {
+        pages++;
+        added += counts[0];
+        modified += counts[1];
+        removed += counts[2];
+    }
+
+    /**
+     * Used to add the report of one Account to the report of a whole run.
+     * @param other type SyncReport
+     */
+    public void merge(SyncReport other) {
+        accounts += other.accounts;
+        failedAccounts += other.failedAccounts;
+        pages += other.pages;
+        restarts += other.restarts;
+        added += other.added;
+        modified += other.modified;
+        removed += other.removed;
+    }
+
+    /**
+     * Used to record an Account whose sync failed, the pages written before the failure are kept.
+     * @param accountId type Long
+     * @param error type Throwable
+     */
+    public void addFailure(Long accountId, Throwable error) {
+        accounts++;
+        failedAccounts++;
+        if(errors.size() >= MAX_ERRORS) return;
+        Map<String, Object> failure = new HashMap<String, Object>();
+        failure.put("accountId", accountId);
+        failure.put("error", error.getMessage());
+        errors.add(failure);
+    }
+
+    // GETTERS & SETTERS ////////////////
+    public long getAccounts() { return accounts; }
+    public void setAccounts(long accounts) { this.accounts = accounts; }
+    public long getFailedAccounts() { return failedAccounts; }
+    public void setFailedAccounts(long failedAccounts) { this.failedAccounts = failedAccounts; }
+    public long getPages() { return pages; }
+    public void setPages(long pages) { this.pages = pages; }
+    public long getRestarts() { return restarts; }
+    public void setRestarts(long restarts) { this.restarts = restarts; }
+    public long getAdded() { return added; }
+    public void setAdded(long added) { this.added = added; }
+    public long getModified() { return modified; }
+    public void setModified(long modified) { this.modified = modified; }
+    public long getRemoved() { return removed; }
+    public void setRemoved(long removed) { this.removed = removed; }
+    public long getMillis() { return millis; }
+    public void setMillis(long millis) { this.millis = millis; }
+    public List<Map<String, Object>> getErrors() { return errors; }
+    public void setErrors(List<Map<String, Object>> errors) { this.errors = errors; }
+}
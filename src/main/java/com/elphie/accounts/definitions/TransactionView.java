@@ -0,0 +1,12 @@
+package com.elphie.accounts.definitions;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+
+// Read-only row of the Transaction list endpoints, same JSON as the Transaction entity.
+// Built straight from the query result: nothing is attached to the persistence context.
+public record TransactionView(
+    Long id, Long userId, Long accountId, String reference, Money amount, Date date,
+    String type, String externalId, Timestamp createdOn, Timestamp updatedOn
+) {
+}
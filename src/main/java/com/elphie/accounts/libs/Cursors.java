@@ -0,0 +1,60 @@
+package com.elphie.accounts.libs;
+
+// =============================================================================
+// File Name: libs/Cursors.java
+// File Description:
+// This file contains the helpers to build and read the opaque keyset
+// pagination cursors returned as "next" by the list endpoints.
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// =============================================================================
+// Class
+// =============================================================================
+public class Cursors {
+
+    // PROPERTIES ////////////////
+    public static final int MAX_LIMIT = 1000;
+
+    /**
+     * Used to encode the sort key and id of the last row of a page.
+     * The id goes first so the key itself may hold any character.
+     * @param key type String -> The sort column value (date as yyyy-MM-dd, account name...)
+     * @param id type long -> The tie breaker
+     * @return String -> URL safe Base64 cursor
+     */
+    public static String encode(String key, long id) {
+        String raw = id + ":" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Used to decode a cursor built by encode.
+     * @param cursor type String
+     * @return Cursor -> The sort key and id to seek after
+     * @throws IllegalArgumentException when the cursor was not built by encode
+     */
+    public static Cursor decode(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separator = raw.indexOf(':');
+        if(separator < 1) throw new IllegalArgumentException("Invalid cursor.");
+        return new Cursor(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+    }
+
+    /**
+     * Used to check the page size requested by FE.
+     * @param limit type int
+     * @return boolean
+     */
+    public static boolean isValidLimit(int limit) {
+        return limit > 0 && limit <= MAX_LIMIT;
+    }
+
+    // TYPES ////////////////
+    public record Cursor(String key, long id) {}
+}
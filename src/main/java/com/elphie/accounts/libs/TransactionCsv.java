@@ -0,0 +1,147 @@
+package com.elphie.accounts.libs;
+
+// =============================================================================
+// File Name: libs/TransactionCsv.java
+// File Description:
+// This file contains the CSV layout used to import and export Transactions.
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.elphie.accounts.definitions.Money;
+import com.elphie.accounts.models.Transaction;
+
+// =============================================================================
+// Class
+// =============================================================================
+public class TransactionCsv {
+
+    // PROPERTIES ////////////////
+    public static final String HEADER = "userId,accountId,reference,amount,date,type";
+    private static final int COLUMNS = 6;
+
+    // A stray quote would otherwise join the rest of the file into one record
+    private static final int MAX_RECORD_LINES = 32;
+
+    /**
+     * Used to read the next CSV record, which spans several lines when a quoted field holds line breaks
+     * (format writes references with a '\n' that way). Lines are joined with '\n' while a quote is open, so any
+     * line break comes back as '\n'. Joining stops at MAX_RECORD_LINES, the record is then returned as is
+     * and parse reports it unterminated.
+     * @param reader type BufferedReader
+     * @return String | null -> One record without its final line break, null at the end of the input
+     * @throws IOException when the input cannot be read
+     */
+    public static String readRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if(line == null) return null;
+
+        int open = quotes(line);
+        if(open % 2 == 0) return line;
+
+        StringBuilder record = new StringBuilder(line);
+        for(int lines = 1; open % 2 != 0 && lines < MAX_RECORD_LINES && (line = reader.readLine()) != null; lines++) {
+            record.append('\n').append(line);
+            open += quotes(line);
+        }
+        return record.toString();
+    }
+
+    /**
+     * Used to parse one CSV record into a Transaction.
+     * Columns follow HEADER, dates are yyyy-MM-dd and quoted fields may hold commas, line breaks and "" escapes.
+     * Empty fields are left NULL so Utiles.validateTransaction reports them like the JSON endpoints do.
+     * @param line type String -> One CSV record without its final line break, as returned by readRecord
+     * @return Transaction
+     * @throws IllegalArgumentException when the line cannot be parsed
+     */
+    public static Transaction parse(String line) {
+
+        // Split fields
+        List<String> fields = split(line);
+        if(fields.size() != COLUMNS) {
+            throw new IllegalArgumentException("Expected " + COLUMNS + " columns but found " + fields.size() + ".");
+        }
+
+        // Populate Transaction
+        Transaction transaction = new Transaction();
+        transaction.setUserId(fields.get(0).isEmpty() ? null : Long.parseLong(fields.get(0)));
+        transaction.setAccountId(fields.get(1).isEmpty() ? null : Long.parseLong(fields.get(1)));
+        transaction.setReference(fields.get(2).isEmpty() ? null : fields.get(2));
+        transaction.setAmount(fields.get(3).isEmpty() ? null : Money.parse(fields.get(3)));
+        transaction.setDate(fields.get(4).isEmpty() ? null : java.sql.Date.valueOf(fields.get(4)));
+        transaction.setType(fields.get(5).isEmpty() ? null : fields.get(5));
+
+        return transaction;
+    }
+
+    /**
+     * Used to write a Transaction as one CSV line following HEADER.
+     * @param transaction type Transaction
+     * @param out type StringBuilder -> Reused by the caller to avoid a String per row
+     */
+    public static void format(Transaction transaction, StringBuilder out) {
+        out.append(transaction.getUserId()).append(',')
+            .append(transaction.getAccountId()).append(',');
+        quote(transaction.getReference(), out);
+        out.append(',')
+            .append(transaction.getAmount()).append(',')
+            .append(transaction.getDate()).append(',');
+        quote(transaction.getType(), out);
+        out.append('\n');
+    }
+
+    // HELPERS ////////////////
+
+    private static List<String> split(String line) {
+        List<String> fields = new ArrayList<>(COLUMNS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for(int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if(quoted) {
+                if(c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if(c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if(c == '"') {
+                quoted = true;
+            } else if(c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if(quoted) throw new IllegalArgumentException("Unterminated quoted field.");
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    private static int quotes(String line) {
+        int count = 0;
+        for(int i = 0; i < line.length(); i++) if(line.charAt(i) == '"') count++;
+        return count;
+    }
+
+    private static void quote(String value, StringBuilder out) {
+        if(value == null) return;
+        if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            out.append(value);
+            return;
+        }
+        out.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
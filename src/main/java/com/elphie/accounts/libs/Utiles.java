@@ -50,6 +50,35 @@ public class Utiles {
         return new ResponseEntity<Object>(responseMap, status);
     }
 
+    /**
+     * Used to generate custome JSON Http Responses for one page of a keyset paginated list
+     * @param status type HttpStatus -> The Response status 200 OK | 400 Client Error | 404 Not Found | 500 Server Error
+     * @param message type String -> The Response message
+     * @param data type Object -> The page items
+     * @param next type String | null -> Opaque cursor of the next page, null on the last page
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static ResponseEntity<Object> generateResponse(HttpStatus status, String message, Object data, String next) {
+
+        // Create the Response Object and add the next page cursor
+        ResponseEntity<Object> response = generateResponse(status, message, data);
+        ((Map<String, Object>) response.getBody()).put("next", next);
+
+        // Return Response Object
+        return response;
+    }
+
+    /**
+     * Used to turn a search query into a LIKE / ILIKE infix pattern, escaping the LIKE wildcards
+     * @param query type String -> The raw search query
+     * @return String -> %query% with backslash, % and _ escaped
+     */
+    public static String likePattern(String query) {
+        String escaped = query.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
     /**
      * Used to validate USer Object Data as per DB Policies.
      *    1 -> NOT NULL Data Policy for: email, password and account_type.
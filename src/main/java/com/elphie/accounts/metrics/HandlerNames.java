@@ -0,0 +1,51 @@
+package com.elphie.accounts.metrics;
+
+// =============================================================================
+// File Name: metrics/HandlerNames.java
+// File Description:
+// This file contains the helper naming the controller method that handled a
+// request, used as the handler tag of the request metrics
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+// =============================================================================
+// Class
+// =============================================================================
+public final class HandlerNames {
+
+    // PROPERTIES ////////////////
+    public static final String NONE = "none";
+
+    private HandlerNames() {}
+
+    /**
+     * Used to get the handler of a request as Controller.method, NONE when no controller matched (404, static).
+     * @param request type HttpServletRequest | null
+     * @return String
+     */
+    public static String of(HttpServletRequest request) {
+        if(request == null) return NONE;
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if(handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return NONE;
+    }
+
+    /**
+     * Used to get the URI template a request matched, keeps the metrics cardinality bounded.
+     * @param request type HttpServletRequest
+     * @return String
+     */
+    public static String uri(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,143 @@
+package com.elphie.accounts.metrics;
+
+// =============================================================================
+// File Name: metrics/PayloadSizeFilter.java
+// File Description:
+// This file contains the servlet filter recording the request and response
+// body sizes of every call, tagged like http.server.requests
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+// =============================================================================
+// Class
+// =============================================================================
+public class PayloadSizeFilter extends OncePerRequestFilter {
+
+    // PROPERTIES ////////////////
+    public static final String REQUEST_SIZE = "http.server.request.size";
+    public static final String RESPONSE_SIZE = "http.server.response.size";
+
+    private static final String COUNTER_ATTRIBUTE = PayloadSizeFilter.class.getName() + ".response";
+
+    private final MeterRegistry registry;
+
+    // CONSTRUCTORS ////////////////
+    public PayloadSizeFilter(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    // METHODS ////////////////
+
+    /**
+     * Used to count the bytes written to the response and record both sizes once the response is done.
+     * Async requests (streamed exports) are recorded on their async dispatch, after the body was written.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+        throws ServletException, IOException {
+
+        // Wrap on the first dispatch, the async dispatch already writes through the wrapper
+        CountingResponse counting = (CountingResponse) request.getAttribute(COUNTER_ATTRIBUTE);
+        if(counting == null) {
+            counting = new CountingResponse(response);
+            request.setAttribute(COUNTER_ATTRIBUTE, counting);
+            chain.doFilter(request, counting);
+        } else {
+            chain.doFilter(request, response);
+        }
+
+        // Body still being written by the async thread
+        if(request.isAsyncStarted()) return;
+
+        Tags tags = Tags.of(
+            "method", request.getMethod(),
+            "uri", HandlerNames.uri(request),
+            "handler", HandlerNames.of(request),
+            "status", String.valueOf(counting.getStatus())
+        );
+        if(request.getContentLengthLong() >= 0) {
+            summary(REQUEST_SIZE, tags).record(request.getContentLengthLong());
+        }
+        summary(RESPONSE_SIZE, tags).record(counting.bytes);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    // HELPERS ////////////////
+
+    private DistributionSummary summary(String name, Tags tags) {
+        return DistributionSummary.builder(name).baseUnit("bytes").tags(tags).register(registry);
+    }
+
+    // Counts bytes written through getOutputStream, which is what the Spring message converters use
+    private static class CountingResponse extends HttpServletResponseWrapper {
+
+        private long bytes;
+        private ServletOutputStream outputStream;
+
+        private CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if(outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytes++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytes += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.elphie.accounts.metrics;
+
+// =============================================================================
+// File Name: metrics/RepositoryRowsInterceptor.java
+// File Description:
+// This file contains the repository proxy interceptor recording how many rows
+// each repository method returned or modified
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// =============================================================================
+// Class
+// =============================================================================
+public class RepositoryRowsInterceptor implements MethodInterceptor {
+
+    // PROPERTIES ////////////////
+    public static final String ROWS = "spring.data.repository.rows";
+
+    private final MeterRegistry registry;
+    private final String repository;
+
+    // One summary per method, looked up without building tags on every call
+    private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    // CONSTRUCTORS ////////////////
+    public RepositoryRowsInterceptor(MeterRegistry registry, String repository) {
+        this.registry = registry;
+        this.repository = repository;
+    }
+
+    // METHODS ////////////////
+
+    /**
+     * Used to record the rows of a repository call: the size of a returned List / Page, 0 or 1 for
+     * an Optional or single entity, the affected rows of an @Modifying query. Streams are read
+     * after the call returns and are not counted.
+     */
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+
+        long rows = rows(result, invocation.getMethod().getReturnType());
+        if(rows >= 0) {
+            summaries.computeIfAbsent(invocation.getMethod(), method -> DistributionSummary.builder(ROWS)
+                .baseUnit("rows")
+                .tag("repository", repository)
+                .tag("method", method.getName())
+                .register(registry)
+            ).record(rows);
+        }
+
+        return result;
+    }
+
+    // HELPERS ////////////////
+
+    private static long rows(Object result, Class<?> returnType) {
+        if(returnType == void.class || Stream.class.isAssignableFrom(returnType)) return -1;
+        if(result == null) return 0;
+        if(result instanceof Collection<?> collection) return collection.size();
+        if(result instanceof Slice<?> slice) return slice.getNumberOfElements();
+        if(result instanceof Optional<?> optional) return optional.isPresent() ? 1 : 0;
+        if(result instanceof Integer count) return count;
+        if(result instanceof Number || result instanceof Boolean) return -1;
+        return 1;
+    }
+}
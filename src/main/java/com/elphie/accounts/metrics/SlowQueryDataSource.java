@@ -0,0 +1,186 @@
+package com.elphie.accounts.metrics;
+
+// =============================================================================
+// File Name: metrics/SlowQueryDataSource.java
+// File Description:
+// This file contains the DataSource wrapper timing every JDBC statement and
+// handing the slow ones to the SlowQueryLog
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+// =============================================================================
+// Class
+// =============================================================================
+public class SlowQueryDataSource extends DelegatingDataSource {
+
+    // PROPERTIES ////////////////
+    private final SlowQueryLog slowQueryLog;
+
+    // CONSTRUCTORS ////////////////
+    public SlowQueryDataSource(DataSource target, SlowQueryLog slowQueryLog) {
+        super(target);
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    // METHODS ////////////////
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    // HELPERS ////////////////
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SlowQueryDataSource.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException error) {
+            throw error.getTargetException();
+        }
+    }
+
+    // Hands out statement proxies, everything else goes straight to the pooled connection
+    private class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if(method.getName().equals("equals")) return proxy == args[0];
+            Object result = SlowQueryDataSource.invoke(target, method, args);
+
+            // createStatement / prepareStatement / prepareCall
+            if(result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return proxy(method.getReturnType(), new StatementHandler(statement, sql));
+            }
+            return result;
+        }
+    }
+
+    // Times execute* calls, keeps the bound parameter types and counts the rows of captured queries
+    private class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String sql;
+        private final List<String> parameterTypes = new ArrayList<>();
+
+        private StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if(name.equals("equals")) return proxy == args[0];
+
+            // setLong(1, ...), setNull(2, Types.BIGINT)...
+            if(name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index
+                && target instanceof PreparedStatement) {
+                bind(index, name.equals("setNull") || args[1] == null ? "null" : args[1].getClass().getSimpleName());
+                return SlowQueryDataSource.invoke(target, method, args);
+            }
+            if(name.equals("clearParameters")) parameterTypes.clear();
+            if(!name.startsWith("execute")) return SlowQueryDataSource.invoke(target, method, args);
+
+            String statementSql = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+            long start = System.nanoTime();
+            Object result = SlowQueryDataSource.invoke(target, method, args);
+            long elapsed = System.nanoTime() - start;
+            if(!slowQueryLog.capture(elapsed)) return result;
+            String origin = slowQueryLog.origin();
+
+            // Rows are known once the caller is done with the ResultSet
+            if(result instanceof ResultSet resultSet) {
+                return proxy(ResultSet.class, new ResultSetHandler(resultSet, statementSql, List.copyOf(parameterTypes), elapsed, origin));
+            }
+            slowQueryLog.log(statementSql, List.copyOf(parameterTypes), elapsed, rows(result), origin);
+            return result;
+        }
+
+        private void bind(int index, String type) {
+            while(parameterTypes.size() < index) parameterTypes.add("?");
+            parameterTypes.set(index - 1, type);
+        }
+
+        private long rows(Object result) {
+            if(result instanceof Integer count) return count;
+            if(result instanceof Long count) return count;
+            if(result instanceof int[] counts) {
+                long total = 0;
+                for(int count : counts) total += Math.max(count, 0);
+                return total;
+            }
+            if(result instanceof long[] counts) {
+                long total = 0;
+                for(long count : counts) total += Math.max(count, 0);
+                return total;
+            }
+            return -1;
+        }
+    }
+
+    // Counts next() == true and logs the captured query when the ResultSet is closed
+    private class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final String sql;
+        private final List<String> parameterTypes;
+        private final long elapsed;
+        private final String origin;
+        private long rows;
+        private boolean logged;
+
+        private ResultSetHandler(ResultSet target, String sql, List<String> parameterTypes, long elapsed, String origin) {
+            this.target = target;
+            this.sql = sql;
+            this.parameterTypes = parameterTypes;
+            this.elapsed = elapsed;
+            this.origin = origin;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if(method.getName().equals("equals")) return proxy == args[0];
+            Object result = SlowQueryDataSource.invoke(target, method, args);
+            if(method.getName().equals("next") && Boolean.TRUE.equals(result)) rows++;
+            if(method.getName().equals("close") && !logged) {
+                logged = true;
+                slowQueryLog.log(sql, parameterTypes, elapsed, rows, origin);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.elphie.accounts.metrics;
+
+// =============================================================================
+// File Name: metrics/SlowQueryLog.java
+// File Description:
+// This file contains the slow query capture policy (threshold and sampling)
+// and the log line written for every captured query
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+// =============================================================================
+// Class
+// =============================================================================
+public class SlowQueryLog {
+
+    // PROPERTIES ////////////////
+    // Routed to an async, bounded appender in logback-spring.xml
+    public static final String LOGGER_NAME = "elphie.slow-query";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+
+    // CONSTRUCTORS ////////////////
+    public SlowQueryLog(Duration threshold, double sampleRate) {
+        this.thresholdNanos = threshold.toNanos();
+        this.sampleRate = sampleRate;
+    }
+
+    // METHODS ////////////////
+
+    /**
+     * Used to decide if a query is logged: at or above the threshold, then kept with probability sampleRate.
+     * Called on the request thread right after the statement ran, so it must stay cheap.
+     * @param elapsedNanos type long
+     * @return boolean
+     */
+    public boolean capture(long elapsedNanos) {
+        if(elapsedNanos < thresholdNanos || !LOGGER.isInfoEnabled()) return false;
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * Used to name the controller method running the query, the thread name off request threads (async exports, jobs).
+     * Read when the statement runs, the request may be gone by the time the rows are counted.
+     * @return String
+     */
+    public String origin() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if(attributes instanceof ServletRequestAttributes servletAttributes) {
+            return HandlerNames.of(servletAttributes.getRequest());
+        }
+        return Thread.currentThread().getName();
+    }
+
+    /**
+     * Used to write one captured query. Only parameter types are logged, never values.
+     * @param sql type String
+     * @param parameterTypes type List<String>
+     * @param elapsedNanos type long
+     * @param rows type long -> -1 when unknown
+     * @param origin type String
+     */
+    public void log(String sql, List<String> parameterTypes, long elapsedNanos, long rows, String origin) {
+        LOGGER.info("{} ms, {} rows, {}, params {}: {}",
+            String.format("%.3f", elapsedNanos / 1e6), rows < 0 ? "?" : rows, origin, parameterTypes, sql);
+    }
+}
@@ -11,13 +11,19 @@ package com.elphie.accounts.models;
 // =============================================================================
 import java.sql.Timestamp;
 
+import com.elphie.accounts.definitions.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import jakarta.persistence.*;
 
 // =============================================================================
 // Entity Class
 // =============================================================================
 @Entity
-@Table(name = "accounts")
+@Table(name = "accounts", indexes = {
+    @Index(name = "accounts_user_id_name_idx", columnList = "userId, name")
+})
 public class Account {
 
     // PROPERTIES ////////////////
@@ -37,12 +43,23 @@ public class Account {
     @Column(name = "iban")
     private String iban;
 
-    @Column(name = "balance")
-    private Double balance;
+    // Kept by the ledger (IAccountRepository.adjustBalance), never written back by save(). Minor units, see Money
+    @Column(name = "balance", updatable = false)
+    private Money balance;
 
     @Column(name = "plaidId")
     private String plaidId;
 
+    // Plaid Item token of a linked Account, accepted from FE but never sent back
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    @Column(name = "plaidAccessToken")
+    private String plaidAccessToken;
+
+    // Last /transactions/sync cursor, only written by the sync (IAccountRepository.updatePlaidCursor)
+    @JsonIgnore
+    @Column(name = "plaidCursor", length = 2048, updatable = false)
+    private String plaidCursor;
+
     @Column(name = "createdOn")
     private Timestamp createdOn;
 
@@ -55,7 +72,7 @@ public class Account {
 
     // CONSTRUCTORS ////////////////
 
-    public Account(Long userId, String name, String type, String iban, Double balance) {
+    public Account(Long userId, String name, String type, String iban, Money balance) {
         this.userId = userId;
         this.name = name;
         this.type = type;
@@ -105,11 +122,11 @@ public class Account {
         this.iban = iban;
     }
 
-    public Double getBalance() {
+    public Money getBalance() {
         return this.balance;
     }
 
-    public void setBalance(Double balance) {
+    public void setBalance(Money balance) {
         this.balance = balance;
     }
 
@@ -121,6 +138,22 @@ public class Account {
         this.plaidId = plaidId;
     }
 
+    public String getPlaidAccessToken() {
+        return plaidAccessToken;
+    }
+
+    public void setPlaidAccessToken(String plaidAccessToken) {
+        this.plaidAccessToken = plaidAccessToken;
+    }
+
+    public String getPlaidCursor() {
+        return plaidCursor;
+    }
+
+    public void setPlaidCursor(String plaidCursor) {
+        this.plaidCursor = plaidCursor;
+    }
+
     public Timestamp getCreatedOn() {
         return this.createdOn;
     }
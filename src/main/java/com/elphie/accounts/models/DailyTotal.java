@@ -0,0 +1,149 @@
+package com.elphie.accounts.models;
+
+// =============================================================================
+// File Name: model/DailyTotal.java
+// File Description:
+// This file contains the DailyTotal Entity Class, one pre-aggregated row
+// per User, Account, day and Transaction type.
+// =============================================================================
+
+// =============================================================================
+// Entity Imports
+// =============================================================================
+import java.io.Serializable;
+import java.sql.Date;
+import java.util.Objects;
+
+import jakarta.persistence.*;
+
+// =============================================================================
+// Entity Class
+// =============================================================================
+@Entity
+@Table(name = "daily_totals")
+@IdClass(DailyTotal.Key.class)
+public class DailyTotal {
+
+    // PROPERTIES ////////////////
+    @Id
+    @Column(name = "userId")
+    private Long userId;
+
+    @Id
+    @Column(name = "accountId")
+    private Long accountId;
+
+    @Id
+    @Column(name = "date")
+    private Date date;
+
+    @Id
+    @Column(name = "type")
+    private String type;
+
+    // Minor units (cents), summed as long
+    @Column(name = "total", nullable = false)
+    private Long total;
+
+    @Column(name = "txCount", nullable = false)
+    private Long txCount;
+
+    // DEFAULT CONSTRUCTOR ////////////////
+    public DailyTotal() {}
+
+    // GETTERS & SETTERS ////////////////
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public Date getDate() {
+        return date;
+    }
+
+    public void setDate(Date date) {
+        this.date = date;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+
+    public Long getTxCount() {
+        return txCount;
+    }
+
+    public void setTxCount(Long txCount) {
+        this.txCount = txCount;
+    }
+
+    // KEY CLASS ////////////////
+    public static class Key implements Serializable, Comparable<Key> {
+
+        private Long userId;
+        private Long accountId;
+        private Date date;
+        private String type;
+
+        public Key() {}
+
+        public Key(Long userId, Long accountId, Date date, String type) {
+            this.userId = userId;
+            this.accountId = accountId;
+            this.date = date;
+            this.type = type;
+        }
+
+        public Long getUserId() { return userId; }
+        public Long getAccountId() { return accountId; }
+        public Date getDate() { return date; }
+        public String getType() { return type; }
+
+        @Override
+        public boolean equals(Object other) {
+            if(this == other) return true;
+            if(!(other instanceof Key)) return false;
+            Key key = (Key) other;
+            return Objects.equals(userId, key.userId) && Objects.equals(accountId, key.accountId)
+                && Objects.equals(date, key.date) && Objects.equals(type, key.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, accountId, date, type);
+        }
+
+        // Gives rollup writes a fixed row locking order across concurrent DB transactions
+        @Override
+        public int compareTo(Key key) {
+            int result = userId.compareTo(key.userId);
+            if(result == 0) result = accountId.compareTo(key.accountId);
+            if(result == 0) result = date.compareTo(key.date);
+            if(result == 0) result = type.compareTo(key.type);
+            return result;
+        }
+    }
+}
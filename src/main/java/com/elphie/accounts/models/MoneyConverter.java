@@ -0,0 +1,33 @@
+package com.elphie.accounts.models;
+
+// =============================================================================
+// File Name: models/MoneyConverter.java
+// File Description:
+// This file contains the JPA converter storing Money as its minor units in
+// BIGINT columns
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import com.elphie.accounts.definitions.Money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// =============================================================================
+// Class
+// =============================================================================
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Money money) {
+        return money == null ? null : money.minor();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(Long minor) {
+        return minor == null ? null : Money.ofMinor(minor);
+    }
+}
@@ -12,18 +12,27 @@ package com.elphie.accounts.models;
 import java.sql.Timestamp;
 import java.sql.Date;
 
+import com.elphie.accounts.definitions.Money;
+
 import jakarta.persistence.*;
 
 // =============================================================================
 // Entity Class
 // =============================================================================
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+    @Index(name = "transactions_user_id_date_idx", columnList = "userId, date"),
+    @Index(name = "transactions_user_id_account_id_date_idx", columnList = "userId, accountId, date"),
+    @Index(name = "transactions_account_id_external_id_date_idx", columnList = "accountId, externalId, date", unique = true)
+})
 public class Transaction {
 
     // PROPERTIES ////////////////
+    // Pooled sequence (allocationSize ids per round trip) so Hibernate can batch inserts,
+    // IDENTITY forces one INSERT per row to read the generated key back.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "userId")
@@ -36,7 +45,8 @@ public class Transaction {
     private String reference;
 
     @Column(name = "amount")
-    private Double amount;
+    // Minor units (cents), see Money
+    private Money amount;
 
     @Column(name = "date")
     private Date date;
@@ -44,6 +54,10 @@ public class Transaction {
     @Column(name = "type")
     private String type;
 
+    // Provider id of a synced Transaction (Plaid transaction_id), unique per Account, null when created in the app
+    @Column(name = "externalId")
+    private String externalId;
+
     @Column(name = "createdOn")
     private Timestamp createdOn;
 
@@ -55,13 +69,21 @@ public class Transaction {
 
     // CONSTRUCTORS ////////////////
 
-    public Transaction(Long userId, Long accountId, String reference, Double amount, Date date) {
+    public Transaction(Long userId, Long accountId, String reference, Money amount, Date date) {
         this.userId = userId;
         this.accountId = accountId;
         this.reference = reference;
         this.amount = amount;
         this.date = date;
     }
+
+    // Copy of the request fields only (no id, no timestamps), written in place of the original so a
+    // rolled back batch leaves no assigned id on a Transaction that is then written again
+    public Transaction(Transaction other) {
+        this(other.userId, other.accountId, other.reference, other.amount, other.date);
+        this.type = other.type;
+        this.externalId = other.externalId;
+    }
     
 
     // GETTERS & SETTERS ////////////////
@@ -97,11 +119,11 @@ public class Transaction {
         this.reference = reference;
     }
 
-    public Double getAmount() {
+    public Money getAmount() {
         return amount;
     }
 
-    public void setAmount(Double amount) {
+    public void setAmount(Money amount) {
         this.amount = amount;
     }
 
@@ -120,6 +142,14 @@ public class Transaction {
         this.type = type;
     }
 
+    public String getExternalId() {
+        return externalId;
+    }
+
+    public void setExternalId(String externalId) {
+        this.externalId = externalId;
+    }
+
     public Timestamp getCreatedOn() {
         return createdOn;
     }
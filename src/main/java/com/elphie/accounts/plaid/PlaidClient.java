@@ -0,0 +1,180 @@
+package com.elphie.accounts.plaid;
+
+// =============================================================================
+// File Name: plaid/PlaidClient.java
+// File Description:
+// This file contains the HTTP client of the Plaid /transactions/sync API used
+// by the transaction sync, with its request / response shapes
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// =============================================================================
+// Client Class
+// =============================================================================
+@Component
+public class PlaidClient {
+
+    // Error code asking to restart a pagination from its first cursor
+    public static final String MUTATION_DURING_PAGINATION = "TRANSACTIONS_SYNC_MUTATION_DURING_PAGINATION";
+
+    // Attempts of a call answered 429 or 5xx, waiting BACKOFF x attempt in between
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BACKOFF_MILLIS = 500;
+
+    // PROPERTIES ////////////////
+    private final RestClient restClient;
+    private final String clientId;
+    private final String secret;
+
+    // CONSTRUCTORS ////////////////
+    public PlaidClient(
+        RestClient.Builder builder,
+        @Value("${elphie.plaid.base-url}") String baseUrl,
+        @Value("${elphie.plaid.client-id:}") String clientId,
+        @Value("${elphie.plaid.secret:}") String secret,
+        @Value("${elphie.plaid.timeout:30s}") Duration timeout
+    ) {
+        // One shared HttpClient, its connection pool is used by every sync worker
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(
+            HttpClient.newBuilder().connectTimeout(timeout).build()
+        );
+        requestFactory.setReadTimeout(timeout);
+
+        this.restClient = builder.baseUrl(baseUrl).requestFactory(requestFactory).build();
+        this.clientId = clientId;
+        this.secret = secret;
+    }
+
+    // METHODS ////////////////
+
+    /**
+     * Used to get the next page of Transaction changes of a linked Account after a cursor.
+     * Calls answered 429 or 5xx are retried, other errors are thrown with the Plaid error code.
+     * @param accessToken type String -> Item token of the Account
+     * @param accountId type String -> Plaid account_id, only its changes are returned
+     * @param cursor type String | null -> null for the first sync of the Account
+     * @param count type int -> Changes per page, at most 500
+     * @return SyncPage
+     * @throws PlaidException when Plaid answers with an error
+     */
+    public SyncPage sync(String accessToken, String accountId, String cursor, int count) {
+        SyncRequest request = new SyncRequest(clientId, secret, accessToken, cursor, count, new SyncOptions(accountId));
+
+        for(int attempt = 1; ; attempt++) {
+            try {
+                return restClient.post()
+                    .uri("/transactions/sync")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(request)
+                    .retrieve()
+                    .body(SyncPage.class);
+
+            } catch (RestClientResponseException error) {
+                int status = error.getStatusCode().value();
+                if((status != 429 && status < 500) || attempt == MAX_ATTEMPTS) {
+                    PlaidError plaidError = readError(error);
+                    throw new PlaidException(
+                        plaidError != null ? plaidError.errorCode() : String.valueOf(status),
+                        plaidError != null ? plaidError.errorMessage() : error.getMessage()
+                    );
+                }
+                sleep(BACKOFF_MILLIS * attempt);
+            }
+        }
+    }
+
+    // HELPERS ////////////////
+
+    private static PlaidError readError(RestClientResponseException error) {
+        try {
+            return error.getResponseBodyAs(PlaidError.class);
+        } catch (RuntimeException unreadable) {
+            return null;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException error) {
+            Thread.currentThread().interrupt();
+            throw new PlaidException("INTERRUPTED", "Interrupted while waiting to retry.");
+        }
+    }
+
+    // TYPES ////////////////
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record SyncRequest(
+        @JsonProperty("client_id") String clientId,
+        String secret,
+        @JsonProperty("access_token") String accessToken,
+        String cursor,
+        int count,
+        SyncOptions options
+    ) {}
+
+    public record SyncOptions(@JsonProperty("account_id") String accountId) {}
+
+    public record SyncPage(
+        List<PlaidTransaction> added,
+        List<PlaidTransaction> modified,
+        List<RemovedTransaction> removed,
+        @JsonProperty("next_cursor") String nextCursor,
+        @JsonProperty("has_more") boolean hasMore
+    ) {}
+
+    // amount is positive when money leaves the Account
+    public record PlaidTransaction(
+        @JsonProperty("transaction_id") String transactionId,
+        @JsonProperty("account_id") String accountId,
+        BigDecimal amount,
+        LocalDate date,
+        String name,
+        boolean pending
+    ) {}
+
+    public record RemovedTransaction(
+        @JsonProperty("transaction_id") String transactionId,
+        @JsonProperty("account_id") String accountId
+    ) {}
+
+    public record PlaidError(
+        @JsonProperty("error_type") String errorType,
+        @JsonProperty("error_code") String errorCode,
+        @JsonProperty("error_message") String errorMessage
+    ) {}
+
+    // Error answered by Plaid, code is the Plaid error_code (or the HTTP status when the body is not a Plaid error)
+    public static class PlaidException extends RuntimeException {
+
+        private final String code;
+
+        public PlaidException(String code, String message) {
+            super(code + ": " + message);
+            this.code = code;
+        }
+
+        public String getCode() {
+            return code;
+        }
+    }
+}
@@ -10,18 +10,91 @@ package com.elphie.accounts.repositories;
 // =============================================================================
 // Imports
 // =============================================================================
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.elphie.accounts.definitions.AccountView;
 import com.elphie.accounts.models.Account;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 // =============================================================================
 // Interface
 // =============================================================================
 @Repository
+@Transactional(readOnly = true)
 public interface IAccountRepository extends JpaRepository<Account, Long> {
     
-    List<Account> findByUserIdAndNameContaining(Long userId, String query);
+    // Read as AccountView records (DTO projection), the rows never enter the persistence context
+    List<AccountView> findByUserIdAndNameContaining(Long userId, String query);
+
+    List<Account> findByUserIdOrderByNameAscIdAsc(Long userId);
+
+    // Accounts linked to Plaid, the ones the transaction sync visits
+    @Query("SELECT a.id FROM Account a WHERE a.plaidId IS NOT NULL AND a.plaidAccessToken IS NOT NULL ORDER BY a.id")
+    List<Long> findPlaidLinkedIds();
+
+    // Owner of an Account, for the writes that only know its id
+    @Query("SELECT a.userId FROM Account a WHERE a.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
+    // Sync cursor, written once every page up to it has been stored
+    @Transactional
+    @Modifying
+    @Query(value="UPDATE accounts SET plaid_cursor = :cursor WHERE id = :id", nativeQuery = true)
+    int updatePlaidCursor(@Param("id") Long id, @Param("cursor") String cursor);
+
+    // Relative ledger update, the row lock serialises concurrent writers so no delta is lost
+    @Transactional
+    @Modifying
+    @Query(value="UPDATE accounts SET balance = COALESCE(balance, 0) + :delta WHERE id = :id AND user_id = :userId", nativeQuery = true)
+    int adjustBalance(@Param("id") Long id, @Param("userId") Long userId, @Param("delta") long delta);
+
+    // Explicit correction from FE, the only write that sets an absolute balance after create
+    @Transactional
+    @Modifying
+    @Query(value="UPDATE accounts SET balance = :balance WHERE id = :id", nativeQuery = true)
+    int overrideBalance(@Param("id") Long id, @Param("balance") long balance);
+
+    // Row locks of the Accounts a bulk delete subtracts from, in id order like apply takes them. Must come
+    // before subtractTransactions: an UPDATE that waits on a row lock keeps its statement snapshot and would
+    // miss a Transaction committed meanwhile, which the following DELETE (fresh snapshot) still deletes.
+    // Once the locks are held, a create waits for the delete to commit before touching the balance
+    @Transactional
+    @Query(value="SELECT id FROM accounts WHERE user_id = :userId ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByUserId(@Param("userId") Long userId);
+
+    @Transactional
+    @Query(value="SELECT id FROM accounts WHERE id = :id AND user_id = :userId FOR UPDATE", nativeQuery = true)
+    List<Long> lockById(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Takes the Transactions of a bulk delete out of the balances before they are deleted, under the locks above
+    @Transactional
+    @Modifying
+    @Query(value="UPDATE accounts a SET balance = COALESCE(a.balance, 0) - (SELECT COALESCE(SUM(t.amount), 0) FROM transactions t WHERE t.account_id = a.id AND t.user_id = :userId AND t.date BETWEEN :start AND :end) WHERE a.user_id = :userId", nativeQuery = true)
+    int subtractTransactions(@Param("userId") Long userId, @Param("start") Date start, @Param("end") Date end);
+
+    @Transactional
+    @Modifying
+    @Query(value="UPDATE accounts a SET balance = COALESCE(a.balance, 0) - (SELECT COALESCE(SUM(t.amount), 0) FROM transactions t WHERE t.account_id = a.id AND t.user_id = :userId AND t.date BETWEEN :start AND :end) WHERE a.id = :id AND a.user_id = :userId", nativeQuery = true)
+    int subtractTransactions(@Param("id") Long id, @Param("userId") Long userId, @Param("start") Date start, @Param("end") Date end);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Account a WHERE a.id = :id")
+    int deleteOneById(@Param("id") Long id);
+
+    // Keyset pages ordered by (name, id), pass the last row of the previous page as (afterName, afterId)
+    @Query("SELECT a FROM Account a WHERE a.userId = :userId AND a.name LIKE %:query% AND (a.name, a.id) > (:afterName, :afterId) ORDER BY a.name ASC, a.id ASC")
+    List<Account> findPageByUserIdAndNameContaining(
+        @Param("userId") Long userId, @Param("query") String query,
+        @Param("afterName") String afterName, @Param("afterId") Long afterId, Limit limit
+    );
 }
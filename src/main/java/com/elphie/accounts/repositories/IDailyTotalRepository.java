@@ -0,0 +1,64 @@
+package com.elphie.accounts.repositories;
+
+// =============================================================================
+// File Name: reposoitories/IDailyTotalRepository.java
+// File Description:
+// This file contains the code of the IDailyTotalRepository Interface that
+// handles the queries to the daily_totals rollup table in the DB
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.elphie.accounts.definitions.DailySpend;
+import com.elphie.accounts.models.DailyTotal;
+
+import java.util.Date;
+import java.util.List;
+
+// =============================================================================
+// Interface
+// =============================================================================
+@Repository
+@Transactional(readOnly = true)
+public interface IDailyTotalRepository extends JpaRepository<DailyTotal, DailyTotal.Key> {
+
+    // Creates the zero row of a key if missing, waits on a concurrent insert of the same key instead of failing
+    @Transactional
+    @Modifying
+    @Query(value="INSERT INTO daily_totals (user_id, account_id, date, type, total, tx_count) VALUES (:userId, :accountId, :date, :type, 0, 0) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int ensureRow(@Param("userId") Long userId, @Param("accountId") Long accountId, @Param("date") Date date, @Param("type") String type);
+
+    // Relative update so concurrent writers never overwrite each other
+    @Transactional
+    @Modifying
+    @Query(value="UPDATE daily_totals SET total = total + :amount, tx_count = tx_count + :count WHERE user_id = :userId AND account_id = :accountId AND date = :date AND type = :type", nativeQuery = true)
+    int increment(@Param("userId") Long userId, @Param("accountId") Long accountId, @Param("date") Date date, @Param("type") String type, @Param("amount") long amount, @Param("count") long count);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DailyTotal d WHERE d.userId = :userId AND d.accountId = :accountId AND d.date = :date AND d.type = :type AND d.txCount = 0")
+    int deleteIfEmpty(@Param("userId") Long userId, @Param("accountId") Long accountId, @Param("date") Date date, @Param("type") String type);
+
+    // Rollup rows share the (account, date) dimensions of the bulk deletes, so whole rows go with them
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DailyTotal d WHERE d.accountId = :accountId")
+    int deleteByAccountId(@Param("accountId") Long accountId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DailyTotal d WHERE d.userId = :userId AND d.date BETWEEN :start AND :end AND (:accountId IS NULL OR d.accountId = :accountId)")
+    int deleteByFilter(@Param("userId") Long userId, @Param("accountId") Long accountId, @Param("start") Date start, @Param("end") Date end);
+
+    // Chart series, optional Account and type filters are skipped when NULL
+    @Query("SELECT new com.elphie.accounts.definitions.DailySpend(d.date, SUM(d.total), SUM(d.txCount)) FROM DailyTotal d WHERE d.userId = :userId AND d.date BETWEEN :start AND :end AND (:accountId IS NULL OR d.accountId = :accountId) AND (:type IS NULL OR d.type = :type) GROUP BY d.date ORDER BY d.date ASC")
+    List<DailySpend> findDailySpend(@Param("userId") Long userId, @Param("start") Date start, @Param("end") Date end, @Param("accountId") Long accountId, @Param("type") String type);
+}
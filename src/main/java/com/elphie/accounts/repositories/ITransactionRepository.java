@@ -10,26 +10,107 @@ package com.elphie.accounts.repositories;
 // =============================================================================
 // Imports
 // =============================================================================
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.elphie.accounts.definitions.RangeSummary;
+import com.elphie.accounts.definitions.TransactionView;
 import com.elphie.accounts.models.Transaction;
 
 import java.util.Date;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 // =============================================================================
 // Interface
 // =============================================================================
+// Derived and @Query finders run read-only (routed to a replica when enabled), writes join the caller's DB transaction
 @Repository
+@Transactional(readOnly = true)
 public interface ITransactionRepository extends JpaRepository<Transaction, Long> {
     
-    List<Transaction> findByUserIdAndReferenceContaining(Long userId, String query);
-    List<Transaction> findByUserIdAndDateBetween(Long userId, Date start, Date end);
+    // Lists read as TransactionView records (DTO projection), the rows never enter the persistence context
+    List<TransactionView> findByUserIdAndReferenceContaining(Long userId, String query);
+    List<TransactionView> findByUserIdAndDateBetween(Long userId, Date start, Date end);
+
+    // Already synced rows of a page of provider Transactions, served by transactions_account_id_external_id_date_idx
+    List<Transaction> findByAccountIdAndExternalIdIn(Long accountId, Collection<String> externalIds);
+
+    // Set based deletes, no Transaction is loaded into memory
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Transaction t WHERE t.accountId = :accountId")
+    int deleteByAccountId(@Param("accountId") Long accountId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Transaction t WHERE t.userId = :userId AND t.date BETWEEN :start AND :end AND (:accountId IS NULL OR t.accountId = :accountId)")
+    int deleteByFilter(@Param("userId") Long userId, @Param("accountId") Long accountId, @Param("start") Date start, @Param("end") Date end);
+
+    // Columns of the analytics store, one row per Transaction sorted like the store keeps them
+    @Query("SELECT t.id, t.date, t.amount, t.accountId, t.type FROM Transaction t WHERE t.userId = :userId ORDER BY t.date ASC, t.id ASC")
+    List<Object[]> findColumnsByUserId(@Param("userId") Long userId);
+
+    // Latest `limit` Transactions of every Account of a User in one query, ranked per Account by a window function
+    @Query(value="SELECT * FROM (SELECT t.*, ROW_NUMBER() OVER (PARTITION BY t.account_id ORDER BY t.date DESC, t.id DESC) AS position FROM transactions t WHERE t.user_id = :userId) ranked WHERE ranked.position <= :limit ORDER BY ranked.account_id, ranked.date DESC, ranked.id DESC", nativeQuery = true)
+    List<Transaction> findLatestPerAccount(@Param("userId") Long userId, @Param("limit") int limit);
+
+    // Range summary straight from the DB when the analytics store is disabled
+    @Query("SELECT new com.elphie.accounts.definitions.RangeSummary(SUM(t.amount), COUNT(t), MIN(t.amount), MAX(t.amount)) FROM Transaction t WHERE t.userId = :userId AND t.date BETWEEN :start AND :end AND (:accountId IS NULL OR t.accountId = :accountId) AND (:type IS NULL OR t.type = :type)")
+    RangeSummary summarize(@Param("userId") Long userId, @Param("start") Date start, @Param("end") Date end, @Param("accountId") Long accountId, @Param("type") String type);
+
+    // Owner of a Transaction, for the writes that only know its id
+    @Query("SELECT t.userId FROM Transaction t WHERE t.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+
+    // Row lock taken by update, patch and delete before they move the amount between balances / daily totals
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.id = :id")
+    Optional<Transaction> findByIdForUpdate(@Param("id") Long id);
+
+    // Ranked infix search served by the transactions_reference_trgm_idx trigram index, pattern must be Utiles.likePattern(query)
+    @Query(value="SELECT t.* FROM transactions t WHERE t.user_id = :userId AND t.reference ILIKE :pattern ORDER BY word_similarity(:query, t.reference) DESC, similarity(:query, t.reference) DESC, t.date DESC, t.id DESC LIMIT :limit", nativeQuery = true)
+    List<Transaction> searchByReference(
+        @Param("userId") Long userId, @Param("query") String query,
+        @Param("pattern") String pattern, @Param("limit") int limit
+    );
+
+    // Keyset pages ordered by (date, id), pass the last row of the previous page as (afterDate, afterId).
+    // The plain date >= :afterDate is implied by the row comparison, PostgreSQL only prunes the older monthly partitions on it
+    @Query("SELECT t FROM Transaction t WHERE t.userId = :userId AND t.reference LIKE %:query% AND t.date >= :afterDate AND (t.date, t.id) > (:afterDate, :afterId) ORDER BY t.date ASC, t.id ASC")
+    List<Transaction> findPageByUserIdAndReferenceContaining(
+        @Param("userId") Long userId, @Param("query") String query,
+        @Param("afterDate") Date afterDate, @Param("afterId") Long afterId, Limit limit
+    );
+
+    @Query("SELECT t FROM Transaction t WHERE t.userId = :userId AND t.date BETWEEN :start AND :end AND (t.date, t.id) > (:afterDate, :afterId) ORDER BY t.date ASC, t.id ASC")
+    List<Transaction> findPageByUserIdAndDateBetween(
+        @Param("userId") Long userId, @Param("start") Date start, @Param("end") Date end,
+        @Param("afterDate") Date afterDate, @Param("afterId") Long afterId, Limit limit
+    );
 
-    // TODO Couldn't get this custom query to work... 😞
-    @Query(value="SELECT SUM(amount), date FROM Transactions t WHERE user_id = ?1 AND date BETWEEN ?2 AND ?3 GROUP BY date ORDER BY date ASC", nativeQuery = true)
-    List<Transaction> findTransactionsByUserIdBetweenDates(Long userId, Date start, Date end);
+    // Cursor backed stream for exports, must be consumed inside a (read only) DB transaction and closed
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t FROM Transaction t WHERE t.userId = ?1 AND t.date BETWEEN ?2 AND ?3 ORDER BY t.date ASC, t.id ASC")
+    Stream<Transaction> streamByUserIdAndDateBetween(Long userId, Date start, Date end);
 
 }
@@ -0,0 +1,240 @@
+package com.elphie.accounts.services;
+
+// =============================================================================
+// File Name: services/AccountService.java
+// File Description:
+// This file contains the code of the Account Service that groups the
+// Account writes that have to run inside one DB transaction.
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.elphie.accounts.analytics.TransactionAnalyticsStore;
+import com.elphie.accounts.config.CacheConfig;
+import com.elphie.accounts.definitions.AccountDashboard;
+import com.elphie.accounts.definitions.AccountRequest;
+import com.elphie.accounts.definitions.Money;
+import com.elphie.accounts.definitions.SpendGroup;
+import com.elphie.accounts.models.Account;
+import com.elphie.accounts.models.Transaction;
+import com.elphie.accounts.repositories.IAccountRepository;
+import com.elphie.accounts.repositories.IDailyTotalRepository;
+import com.elphie.accounts.repositories.ITransactionRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+
+// =============================================================================
+// Service Class
+// =============================================================================
+@Service
+public class AccountService {
+
+    // PROPERTIES ////////////////
+    @Autowired
+    private IAccountRepository accountRepository;
+
+    @Autowired
+    private ITransactionRepository transactionRepository;
+
+    @Autowired
+    private IDailyTotalRepository dailyTotalRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserVersionService userVersionService;
+
+    // Present when elphie.analytics.enabled=true
+    @Autowired(required = false)
+    private TransactionAnalyticsStore analyticsStore;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // METHODS ////////////////
+
+    /**
+     * Used to GET the home screen of a User: every Account with its latest Transactions and month-to-date total.
+     * Three queries whatever the number of Accounts, in one read-only DB transaction:
+     *    1 -> The Accounts of the User, ordered by name
+     *    2 -> The latest `limit` Transactions of each Account, ranked per Account in one window-function query
+     *    3 -> The month-to-date totals of each Account, grouped from the daily_totals rollup
+     * @param userId type Long
+     * @param limit type int -> Transactions per Account
+     * @return List<AccountDashboard>
+     */
+    @Transactional(readOnly = true)
+    public List<AccountDashboard> dashboard(Long userId, int limit) {
+
+        // Accounts
+        List<Account> accounts = accountRepository.findByUserIdOrderByNameAscIdAsc(userId);
+        if(accounts.isEmpty()) return List.of();
+
+        // Latest Transactions, already ordered by Account then newest first
+        Map<Long, List<Transaction>> latest = new HashMap<>();
+        for(Transaction transaction : transactionRepository.findLatestPerAccount(userId, limit)) {
+            latest.computeIfAbsent(transaction.getAccountId(), key -> new ArrayList<>()).add(transaction);
+        }
+
+        // Month-to-date totals
+        LocalDate today = LocalDate.now();
+        Map<Long, SpendGroup> monthTotals = new HashMap<>();
+        for(SpendGroup group : transactionService.group(
+                userId, java.sql.Date.valueOf(today.withDayOfMonth(1)), java.sql.Date.valueOf(today), List.of("accountId"), null)) {
+            monthTotals.put(group.accountId(), group);
+        }
+
+        List<AccountDashboard> dashboard = new ArrayList<>(accounts.size());
+        for(Account account : accounts) {
+            SpendGroup month = monthTotals.get(account.getId());
+            dashboard.add(new AccountDashboard(
+                account,
+                month != null ? month.total() : Money.ZERO,
+                month != null ? month.count() : 0,
+                latest.getOrDefault(account.getId(), List.of())
+            ));
+        }
+
+        return dashboard;
+    }
+
+    /**
+     * Used to GET an Account by Id through the accounts cache.
+     * Misses read the DB and fill the cache, not found ids are not cached.
+     * @param id type Long
+     * @return Optional<Account>
+     */
+    @Cacheable(cacheNames = CacheConfig.ACCOUNTS, key = "#id", unless = "#result == null")
+    public Optional<Account> findById(Long id) {
+        return accountRepository.findById(id);
+    }
+
+    /**
+     * Used to UPDATE an Account by Id.
+     * The balance belongs to the Transaction ledger, save() never writes it. It is only overwritten
+     * when the request carries one, as an explicit correction in the same DB transaction.
+     * @param id type Long
+     * @param request type AccountRequest
+     * @return Optional<Account> -> The updated Account, empty when not found
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#id")
+    public Optional<Account> update(Long id, AccountRequest request) {
+
+        // Find Account
+        Optional<Account> account = accountRepository.findById(id);
+        if(!account.isPresent()) return account;
+
+        // Set new data
+        account.get().setName(request.getName());
+        account.get().setType(request.getType());
+        account.get().setIban(request.getIban());
+
+        // Set new Updated On date
+        account.get().setUpdatedOn(new Timestamp(System.currentTimeMillis()));
+
+        // Save Account with new data
+        Account updatedAccount = accountRepository.save(account.get());
+
+        // Balance correction
+        if(request.getBalance() != null) {
+            Money balance = Money.parse(request.getBalance());
+            accountRepository.overrideBalance(id, balance.minor());
+            updatedAccount.setBalance(balance);
+        }
+        userVersionService.bump(updatedAccount.getUserId());
+
+        return Optional.of(updatedAccount);
+    }
+
+    /**
+     * Used to store the Plaid sync cursor of an Account once every page up to it has been written.
+     * @param id type Long
+     * @param cursor type String
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#id")
+    public void updatePlaidCursor(Long id, String cursor) {
+        accountRepository.updatePlaidCursor(id, cursor);
+    }
+
+    /**
+     * Used to PATCH an Account by Id with one UPDATE ... WHERE id = ? holding only the fields present in the request.
+     * A balance in the request is a correction and is written with its own statement, like update does.
+     * @param id type Long
+     * @param request type AccountRequest -> NULL fields are left untouched
+     * @return boolean -> false when no row has this id
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#id")
+    public boolean patch(Long id, AccountRequest request) {
+
+        // Build UPDATE with the present fields only
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Account> update = builder.createCriteriaUpdate(Account.class);
+        Root<Account> root = update.from(Account.class);
+        if(request.getName() != null) update.set(root.<String>get("name"), request.getName());
+        if(request.getType() != null) update.set(root.<String>get("type"), request.getType());
+        if(request.getIban() != null) update.set(root.<String>get("iban"), request.getIban());
+        update.set(root.<Timestamp>get("updatedOn"), new Timestamp(System.currentTimeMillis()));
+        update.where(builder.equal(root.get("id"), id));
+
+        // Update Account
+        if(entityManager.createQuery(update).executeUpdate() == 0) return false;
+
+        // Balance correction
+        if(request.getBalance() != null) {
+            accountRepository.overrideBalance(id, Money.parse(request.getBalance()).minor());
+        }
+        userVersionService.bump(accountRepository.findUserIdById(id).orElse(null));
+
+        return true;
+    }
+
+    /**
+     * Used to DELETE an Account by Id with its Transactions and daily totals, one set based DELETE each,
+     * all in the same DB transaction. Nothing is loaded into memory, so cached Transactions are all evicted.
+     * @param id type Long
+     * @return boolean -> false when not found
+     */
+    @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.TRANSACTIONS, allEntries = true)
+    })
+    public boolean delete(Long id) {
+
+        // Delete Account first, its row lock turns away concurrent writes to its balance
+        Optional<Long> userId = accountRepository.findUserIdById(id);
+        if(accountRepository.deleteOneById(id) == 0) return false;
+        userVersionService.bump(userId.orElse(null));
+
+        // Delete dependent rows
+        transactionRepository.deleteByAccountId(id);
+        dailyTotalRepository.deleteByAccountId(id);
+        if(analyticsStore != null) analyticsStore.evictAccount(id);
+
+        return true;
+    }
+}
@@ -0,0 +1,218 @@
+package com.elphie.accounts.services;
+
+// =============================================================================
+// File Name: services/PartitionMaintenanceService.java
+// File Description:
+// This file contains the maintenance of the monthly partitions of the
+// PostgreSQL transactions table: future months are created ahead of time and
+// months past the retention are detached for archival.
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.elphie.accounts.config.CacheConfig;
+
+// =============================================================================
+// Service Class
+// =============================================================================
+@Service
+@ConditionalOnProperty(name = "elphie.partitions.enabled", havingValue = "true", matchIfMissing = true)
+public class PartitionMaintenanceService {
+
+    // PROPERTIES ////////////////
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    private static final String PARENT = "transactions";
+
+    // Bounds of a range partition as printed by pg_get_expr: FOR VALUES FROM ('2024-12-01') TO ('2025-01-01')
+    private static final Pattern LOWER_BOUND = Pattern.compile("FROM \\('(\\d{4}-\\d{2}-\\d{2})'\\)");
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('(\\d{4}-\\d{2}-\\d{2})'\\)");
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'" + PARENT + "_y'yyyy'm'MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    // Checked once: only PostgreSQL after V13 has a partitioned transactions table (H2 in tests has not)
+    private Boolean partitioned;
+
+    // Dates the partitions hold as of the last run, [from, to). Null from is MINVALUE, null to accepts everything
+    private volatile LocalDate writableFrom;
+    private volatile LocalDate writableTo;
+
+    // CONSTRUCTORS ////////////////
+    public PartitionMaintenanceService(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        CacheManager cacheManager,
+        @Value("${elphie.partitions.months-ahead:6}") int monthsAhead,
+        @Value("${elphie.partitions.retention-months:0}") int retentionMonths
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cacheManager = cacheManager;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    // METHODS ////////////////
+
+    /**
+     * Used on start and then daily to keep the partitions of the coming months ready and archive the old ones.
+     * A failure is logged and retried on the next run, the months already created stay ahead meanwhile.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${elphie.partitions.cron:0 15 3 * * *}")
+    public void maintain() {
+        try {
+            if(!isPartitioned()) return;
+            createAhead(LocalDate.now());
+            if(retentionMonths > 0) archive(LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths));
+        } catch (RuntimeException error) {
+            logger.warn("Transaction partition maintenance failed, retrying on next run.", error);
+        } finally {
+            if(Boolean.TRUE.equals(partitioned)) refreshWritableRange();
+        }
+    }
+
+    /**
+     * Used by the write paths to turn away a date no partition holds (past the months created ahead, or
+     * archived), which the DB would reject with "no partition of relation found for row".
+     * @param date type Date | null
+     * @return String | null -> The error, null when the date can be written (always without partitions)
+     */
+    public String dateError(Date date) {
+        LocalDate from = writableFrom, to = writableTo;
+        if(date == null || to == null) return null;
+
+        LocalDate day = new java.sql.Date(date.getTime()).toLocalDate();
+        if(!day.isBefore(to)) return "Date must be before " + to + ".";
+        if(from != null && day.isBefore(from)) return "Date must be on or after " + from + ", older months are archived.";
+        return null;
+    }
+
+    /**
+     * Used to create the monthly partitions up to monthsAhead months after today, gaps included.
+     * Each one is created as a plain table and attached, which only takes SHARE UPDATE EXCLUSIVE on
+     * transactions (CREATE TABLE ... PARTITION OF would block every read and write of it meanwhile).
+     * @param today type LocalDate
+     * @return List<String> -> Names of the partitions created
+     */
+    public List<String> createAhead(LocalDate today) {
+        LocalDate horizon = today.withDayOfMonth(1).plusMonths(monthsAhead + 1);
+        LocalDate next = partitions().stream().map(Partition::upperBound).filter(bound -> bound != null)
+            .max(LocalDate::compareTo).orElse(today.withDayOfMonth(1));
+
+        List<String> created = new ArrayList<>();
+        for(; next.isBefore(horizon); next = next.plusMonths(1)) {
+            String name = next.format(PARTITION_NAME);
+            LocalDate from = next;
+            transactionTemplate.executeWithoutResult(status -> {
+                // Give up rather than queue every query behind a lock wait
+                jdbcTemplate.execute("SET LOCAL lock_timeout = '5s'");
+                jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + PARENT + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+                jdbcTemplate.execute("ALTER TABLE " + PARENT + " ATTACH PARTITION " + name
+                    + " FOR VALUES FROM ('" + from + "') TO ('" + from.plusMonths(1) + "')");
+            });
+            created.add(name);
+            logger.info("Created Transaction partition {}.", name);
+        }
+        return created;
+    }
+
+    /**
+     * Used to detach every partition holding only Transactions dated before the cutoff.
+     * DETACH PARTITION CONCURRENTLY (PostgreSQL 14+) never blocks reads and writes of transactions, a detach
+     * interrupted halfway is finished on the next run. Detached tables are kept as they are, to be dumped
+     * to cold storage and dropped. Balances and daily totals are not changed, they still count the archived rows.
+     * @param cutoff type LocalDate -> First day kept in transactions
+     * @return List<String> -> Names of the partitions detached
+     */
+    public List<String> archive(LocalDate cutoff) {
+        List<String> detached = new ArrayList<>();
+        for(Partition partition : partitions()) {
+            if(partition.upperBound() == null || partition.upperBound().isAfter(cutoff)) continue;
+
+            // Autocommit statement, CONCURRENTLY cannot run inside a DB transaction
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + partition.name()
+                + (partition.detachPending() ? " FINALIZE" : " CONCURRENTLY"));
+            detached.add(partition.name());
+            logger.info("Detached Transaction partition {} for archival.", partition.name());
+        }
+
+        // Cached Transactions may be archived ones
+        if(!detached.isEmpty()) cacheManager.getCache(CacheConfig.TRANSACTIONS).clear();
+        return detached;
+    }
+
+    // HELPERS ////////////////
+
+    private boolean isPartitioned() {
+        if(partitioned == null) {
+            String product = jdbcTemplate.execute((Connection connection) -> connection.getMetaData().getDatabaseProductName());
+            partitioned = "PostgreSQL".equals(product) && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(?))", Boolean.class, PARENT
+            ));
+            if(!partitioned) logger.info("{} is not partitioned on {}, partition maintenance is off.", PARENT, product);
+        }
+        return partitioned;
+    }
+
+    private void refreshWritableRange() {
+        try {
+            List<Partition> partitions = partitions().stream().filter(partition -> !partition.detachPending()).toList();
+            writableTo = partitions.stream().map(Partition::upperBound).filter(bound -> bound != null).max(LocalDate::compareTo).orElse(null);
+            writableFrom = partitions.stream().anyMatch(partition -> partition.lowerBound() == null) ? null
+                : partitions.stream().map(Partition::lowerBound).min(LocalDate::compareTo).orElse(null);
+        } catch (RuntimeException error) {
+            logger.warn("Could not read the Transaction partition bounds, keeping the previous ones.", error);
+        }
+    }
+
+    // Partitions of transactions with their bounds, null for MINVALUE / MAXVALUE
+    private List<Partition> partitions() {
+        return jdbcTemplate.query(
+            "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid), i.inhdetachpending FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass(?) ORDER BY c.relname",
+            (row, index) -> {
+                Matcher lower = LOWER_BOUND.matcher(row.getString(2));
+                Matcher upper = UPPER_BOUND.matcher(row.getString(2));
+                return new Partition(
+                    row.getString(1),
+                    lower.find() ? LocalDate.parse(lower.group(1)) : null,
+                    upper.find() ? LocalDate.parse(upper.group(1)) : null,
+                    row.getBoolean(3)
+                );
+            },
+            PARENT
+        );
+    }
+
+    private record Partition(String name, LocalDate lowerBound, LocalDate upperBound, boolean detachPending) {}
+}
@@ -0,0 +1,226 @@
+package com.elphie.accounts.services;
+
+// =============================================================================
+// File Name: services/PlaidSyncService.java
+// File Description:
+// This file contains the code of the Plaid Sync Service that pulls the
+// Transactions of every linked Account with cursor based incremental sync
+// and upserts them into the transactions table.
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.elphie.accounts.definitions.Money;
+import com.elphie.accounts.definitions.SyncReport;
+import com.elphie.accounts.models.Account;
+import com.elphie.accounts.models.Transaction;
+import com.elphie.accounts.plaid.PlaidClient;
+import com.elphie.accounts.plaid.PlaidClient.PlaidException;
+import com.elphie.accounts.plaid.PlaidClient.PlaidTransaction;
+import com.elphie.accounts.plaid.PlaidClient.RemovedTransaction;
+import com.elphie.accounts.plaid.PlaidClient.SyncPage;
+import com.elphie.accounts.repositories.IAccountRepository;
+
+// =============================================================================
+// Service Class
+// =============================================================================
+@Service
+public class PlaidSyncService {
+
+    // Restarts of one Account after Plaid reported a change during its pagination
+    private static final int MAX_RESTARTS = 3;
+
+    private static final int REFERENCE_LENGTH = 255;
+
+    // PROPERTIES ////////////////
+    @Autowired
+    private IAccountRepository accountRepository;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private PlaidClient plaidClient;
+
+    // Only present with elphie.partitions.enabled
+    @Autowired(required = false)
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    @Value("${elphie.plaid.sync.workers:8}")
+    private int workers;
+
+    @Value("${elphie.plaid.sync.page-size:500}")
+    private int pageSize;
+
+    // One run of syncAll at a time
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Accounts being synced on this instance, two runs of one Account would read the same cursor and pages
+    private final Set<Long> syncing = ConcurrentHashMap.newKeySet();
+
+    // METHODS ////////////////
+
+    /**
+     * Used to sync every Account linked to Plaid, workers Accounts at a time.
+     * An Account that fails is reported and does not stop the others.
+     * @return SyncReport -> Totals of the run and the failed Accounts
+     * @throws IllegalStateException when a run is already in progress
+     * @throws InterruptedException
+     */
+    public SyncReport syncAll() throws InterruptedException {
+        if(!running.compareAndSet(false, true)) throw new IllegalStateException("A Plaid sync is already running.");
+
+        long begin = System.currentTimeMillis();
+        SyncReport report = new SyncReport();
+        List<Long> accountIds = accountRepository.findPlaidLinkedIds();
+
+        // Bounded pool, the queued Accounts wait for a free worker
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(workers, accountIds.size())));
+        try {
+            List<Future<SyncReport>> results = new ArrayList<>(accountIds.size());
+            for(Long accountId : accountIds) results.add(pool.submit(() -> syncAccount(accountId)));
+
+            for(int i = 0; i < results.size(); i++) {
+                try {
+                    report.merge(results.get(i).get());
+                } catch (ExecutionException error) {
+                    report.addFailure(accountIds.get(i), error.getCause());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            running.set(false);
+        }
+
+        report.setMillis(System.currentTimeMillis() - begin);
+        return report;
+    }
+
+    /**
+     * Used to sync one linked Account from its stored cursor.
+     * Steps:
+     *    1 -> Ask Plaid for the changes after the cursor, pageSize at a time
+     *    2 -> Upsert each page in its own DB transaction (deduplicated by Plaid transaction_id)
+     *    3 -> Store the last cursor once has_more is false
+     * A page written twice is a no-op, so a crash or a restart of the pagination only replays pages.
+     * One run per Account at a time: pages are also upserted under the Account row lock (see upsertExternal),
+     * which keeps runs of other instances apart.
+     * @param accountId type Long
+     * @return SyncReport
+     * @throws AccountNotLinkedException when the Account does not exist or is not linked
+     * @throws IllegalStateException when the Account is already being synced
+     * @throws PlaidException when Plaid answers with an error
+     * @throws IllegalArgumentException when Plaid sends a Transaction that cannot be stored (amount, date...)
+     */
+    public SyncReport syncAccount(Long accountId) {
+        if(!syncing.add(accountId)) throw new IllegalStateException("A Plaid sync of Account " + accountId + " is already running.");
+        try {
+            return pull(accountId);
+        } finally {
+            syncing.remove(accountId);
+        }
+    }
+
+    // HELPERS ////////////////
+
+    private SyncReport pull(Long accountId) {
+        Account account = accountRepository.findById(accountId)
+            .orElseThrow(() -> new AccountNotLinkedException("Account with id " + accountId + " not found."));
+        if(account.getPlaidId() == null || account.getPlaidAccessToken() == null) {
+            throw new AccountNotLinkedException("Account with id " + accountId + " is not linked to Plaid.");
+        }
+
+        long begin = System.currentTimeMillis();
+        SyncReport report = new SyncReport();
+        report.setAccounts(1);
+
+        String first = account.getPlaidCursor();
+        String cursor = first;
+        while(true) {
+            SyncPage page;
+            try {
+                page = plaidClient.sync(account.getPlaidAccessToken(), account.getPlaidId(), cursor, pageSize);
+            } catch (PlaidException error) {
+                // Plaid asks to start the pagination again from its first cursor
+                if(!PlaidClient.MUTATION_DURING_PAGINATION.equals(error.getCode()) || report.getRestarts() == MAX_RESTARTS) throw error;
+                report.setRestarts(report.getRestarts() + 1);
+                cursor = first;
+                continue;
+            }
+
+            // Added and modified are both upserts, the last version of an id wins
+            List<Transaction> incoming = new ArrayList<>();
+            if(page.added() != null) page.added().forEach(change -> addIfOwned(incoming, account, change));
+            if(page.modified() != null) page.modified().forEach(change -> addIfOwned(incoming, account, change));
+
+            // History older than the archived months has no partition left, it is not synced back
+            if(partitionMaintenanceService != null) incoming.removeIf(transaction -> partitionMaintenanceService.dateError(transaction.getDate()) != null);
+
+            List<String> removed = new ArrayList<>();
+            if(page.removed() != null) {
+                for(RemovedTransaction change : page.removed()) {
+                    if(change.accountId() == null || change.accountId().equals(account.getPlaidId())) removed.add(change.transactionId());
+                }
+            }
+
+            report.addPage(transactionService.upsertExternal(account, incoming, removed));
+
+            cursor = page.nextCursor();
+            if(!page.hasMore()) break;
+        }
+
+        if(!Objects.equals(cursor, first)) accountService.updatePlaidCursor(accountId, cursor);
+
+        report.setMillis(System.currentTimeMillis() - begin);
+        return report;
+    }
+
+    // Plaid amounts are positive for money leaving the Account, the ledger counts it negative
+    private static void addIfOwned(List<Transaction> incoming, Account account, PlaidTransaction change) {
+        if(change.accountId() != null && !change.accountId().equals(account.getPlaidId())) return;
+
+        String reference = change.name();
+        if(reference != null && reference.length() > REFERENCE_LENGTH) reference = reference.substring(0, REFERENCE_LENGTH);
+
+        Transaction transaction = new Transaction(
+            account.getUserId(),
+            account.getId(),
+            reference,
+            Money.of(change.amount().negate().setScale(Money.SCALE, RoundingMode.HALF_EVEN)),
+            java.sql.Date.valueOf(change.date())
+        );
+        transaction.setType(change.amount().signum() > 0 ? "expense" : "income");
+        transaction.setExternalId(change.transactionId());
+        incoming.add(transaction);
+    }
+
+    // TYPES ////////////////
+
+    // No Account to sync, kept apart from the IllegalArgumentException of bad Plaid data
+    public static class AccountNotLinkedException extends RuntimeException {
+
+        public AccountNotLinkedException(String message) {
+            super(message);
+        }
+    }
+}
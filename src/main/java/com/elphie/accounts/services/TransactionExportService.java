@@ -0,0 +1,150 @@
+package com.elphie.accounts.services;
+
+// =============================================================================
+// File Name: services/TransactionExportService.java
+// File Description:
+// This file contains the code of the Transaction Export Service that streams
+// Transactions from a DB cursor straight into the response body.
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.elphie.accounts.libs.TransactionCsv;
+import com.elphie.accounts.models.Transaction;
+import com.elphie.accounts.repositories.ITransactionRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// =============================================================================
+// Service Class
+// =============================================================================
+@Service
+public class TransactionExportService {
+
+    // PROPERTIES ////////////////
+    public static final String JSON = "json";
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+
+    private final ITransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter transactionWriter;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // CONSTRUCTORS ////////////////
+    @Autowired
+    public TransactionExportService(
+        ITransactionRepository transactionRepository,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.transactionRepository = transactionRepository;
+        this.objectMapper = objectMapper;
+        this.transactionWriter = objectMapper.writerFor(Transaction.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    // METHODS ////////////////
+
+    /**
+     * Used to check an export format before the response is committed.
+     * @param format type String
+     * @return boolean
+     */
+    public static boolean isSupported(String format) {
+        return JSON.equals(format) || NDJSON.equals(format) || CSV.equals(format);
+    }
+
+    /**
+     * Used to EXPORT a User's Transactions between two dates without loading them as a List.
+     * The body runs on the async request thread, opens its own read only DB transaction and walks
+     * a server side cursor (fetch size 500), detaching each Transaction once it has been written,
+     * so memory per request stays constant whatever the size of the range.
+     * @param userId type Long
+     * @param start type Date
+     * @param end type Date
+     * @param format type String -> JSON (array) | NDJSON | CSV
+     * @return StreamingResponseBody
+     */
+    public StreamingResponseBody export(Long userId, Date start, Date end, String format) {
+        return out -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<Transaction> transactions = transactionRepository.streamByUserIdAndDateBetween(userId, start, end)) {
+                Iterator<Transaction> iterator = transactions.iterator();
+                if(CSV.equals(format)) writeCsv(iterator, out);
+                else if(NDJSON.equals(format)) writeNdjson(iterator, out);
+                else writeJsonArray(iterator, out);
+            } catch (IOException error) {
+                throw new UncheckedIOException(error);
+            }
+        });
+    }
+
+    // HELPERS ////////////////
+
+    private void writeJsonArray(Iterator<Transaction> transactions, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            while(transactions.hasNext()) {
+                Transaction transaction = transactions.next();
+                transactionWriter.writeValue(generator, transaction);
+                entityManager.detach(transaction);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private void writeNdjson(Iterator<Transaction> transactions, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            while(transactions.hasNext()) {
+                Transaction transaction = transactions.next();
+                transactionWriter.writeValue(generator, transaction);
+                generator.writeRaw('\n');
+                entityManager.detach(transaction);
+            }
+        }
+    }
+
+    private void writeCsv(Iterator<Transaction> transactions, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        StringBuilder line = new StringBuilder(128);
+
+        writer.write(TransactionCsv.HEADER);
+        writer.write('\n');
+        while(transactions.hasNext()) {
+            Transaction transaction = transactions.next();
+            line.setLength(0);
+            TransactionCsv.format(transaction, line);
+            writer.append(line);
+            entityManager.detach(transaction);
+        }
+        writer.flush();
+    }
+}
@@ -0,0 +1,180 @@
+package com.elphie.accounts.services;
+
+// =============================================================================
+// File Name: services/TransactionGroupCommitter.java
+// File Description:
+// This file contains the optional group commit of single Transaction creates:
+// concurrent creates are queued and written together in one DB transaction
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.elphie.accounts.models.Transaction;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+// =============================================================================
+// Service Class
+// =============================================================================
+@Service
+@ConditionalOnProperty(name = "elphie.group-commit.enabled", havingValue = "true")
+public class TransactionGroupCommitter {
+
+    // PROPERTIES ////////////////
+    public static final String BATCH_SIZE = "transactions.group_commit.batch.size";
+    public static final String QUEUE_DELAY = "transactions.group_commit.queue.delay";
+    public static final String FLUSH = "transactions.group_commit.flush";
+
+    private final TransactionService transactionService;
+    private final BlockingQueue<Pending> queue;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final Duration timeout;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private final DistributionSummary batchSize;
+    private final Timer queueDelay;
+    private final Timer flushed;
+    private final Timer retried;
+
+    // CONSTRUCTORS ////////////////
+    public TransactionGroupCommitter(
+        TransactionService transactionService,
+        MeterRegistry registry,
+        @Value("${elphie.group-commit.window:5ms}") Duration window,
+        @Value("${elphie.group-commit.max-batch:256}") int maxBatch,
+        @Value("${elphie.group-commit.queue-capacity:10000}") int queueCapacity,
+        @Value("${elphie.group-commit.timeout:10s}") Duration timeout
+    ) {
+        this.transactionService = transactionService;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.windowNanos = window.toNanos();
+        this.maxBatch = maxBatch;
+        this.timeout = timeout;
+
+        this.batchSize = DistributionSummary.builder(BATCH_SIZE).baseUnit("transactions").register(registry);
+        this.queueDelay = Timer.builder(QUEUE_DELAY).register(registry);
+        this.flushed = Timer.builder(FLUSH).tag("outcome", "batch").register(registry);
+        this.retried = Timer.builder(FLUSH).tag("outcome", "one_by_one").register(registry);
+
+        // One writer, batches are committed one after the other
+        this.writer = new Thread(this::run, "transactions-group-commit");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // METHODS ////////////////
+
+    /**
+     * Used to CREATE an already validated Transaction through the group commit.
+     * Blocks until the batch holding it is committed, the caller gets its own id or its own error.
+     * @param transaction type Transaction
+     * @return Transaction -> The created Transaction with its id
+     * @throws RejectedExecutionException when the queue is full or the application is stopping
+     * @throws IllegalStateException when the commit did not finish within the timeout
+     */
+    public Transaction create(Transaction transaction) throws InterruptedException {
+        Pending pending = new Pending(transaction, System.nanoTime(), new CompletableFuture<>());
+        if(!running || !queue.offer(pending)) throw new RejectedExecutionException("Too many Transactions waiting to be written, try again.");
+
+        try {
+            return pending.result().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException error) {
+            if(error.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(error.getCause());
+        } catch (TimeoutException error) {
+            throw new IllegalStateException("Timed out waiting for the Transaction to be written, it may still be created.");
+        }
+    }
+
+    /**
+     * Used to stop taking creates and write the ones already queued before the application stops.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(timeout.toMillis());
+    }
+
+    // HELPERS ////////////////
+
+    // Collects a batch: the first create opens a window, the batch is written when it closes or is full
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while(running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if(first == null) continue;
+                batch.add(first);
+
+                long deadline = first.enqueuedNanos() + windowNanos;
+                while(batch.size() < maxBatch) {
+                    long wait = deadline - System.nanoTime();
+                    if(wait <= 0) {
+                        queue.drainTo(batch, maxBatch - batch.size());
+                        break;
+                    }
+                    Pending next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if(next == null) break;
+                    batch.add(next);
+                }
+
+                write(batch);
+            } catch (InterruptedException error) {
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        long start = System.nanoTime();
+        for(Pending pending : batch) queueDelay.record(start - pending.enqueuedNanos(), TimeUnit.NANOSECONDS);
+        batchSize.record(batch.size());
+
+        // One DB transaction for the batch, copies are written so a rollback leaves the requests untouched
+        List<Transaction> copies = new ArrayList<>(batch.size());
+        for(Pending pending : batch) copies.add(new Transaction(pending.transaction()));
+        try {
+            List<Transaction> created = transactionService.createAll(copies);
+            flushed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            for(int i = 0; i < batch.size(); i++) batch.get(i).result().complete(created.get(i));
+            return;
+        } catch (RuntimeException error) {
+            // One bad create rolled the batch back, fall through to one DB transaction each
+        }
+
+        // Every caller gets its own outcome
+        for(Pending pending : batch) {
+            try {
+                pending.result().complete(transactionService.create(pending.transaction()));
+            } catch (RuntimeException error) {
+                pending.result().completeExceptionally(error);
+            }
+        }
+        retried.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private record Pending(Transaction transaction, long enqueuedNanos, CompletableFuture<Transaction> result) {}
+}
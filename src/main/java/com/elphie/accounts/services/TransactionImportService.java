@@ -0,0 +1,169 @@
+package com.elphie.accounts.services;
+
+// =============================================================================
+// File Name: services/TransactionImportService.java
+// File Description:
+// This file contains the code of the Transaction Import Service that reads
+// NDJSON or CSV statements one record at a time and writes them in chunks.
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.elphie.accounts.definitions.ImportReport;
+import com.elphie.accounts.libs.TransactionCsv;
+import com.elphie.accounts.libs.Utiles;
+import com.elphie.accounts.models.Transaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+// =============================================================================
+// Service Class
+// =============================================================================
+@Service
+public class TransactionImportService {
+
+    // PROPERTIES ////////////////
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionImportService.class);
+
+    private final TransactionService transactionService;
+    private final ObjectReader transactionReader;
+
+    // Only present with elphie.partitions.enabled
+    @Autowired(required = false)
+    private PartitionMaintenanceService partitionMaintenanceService;
+
+    @Value("${elphie.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${elphie.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Value("${elphie.import.progress-every-chunks:20}")
+    private int progressEveryChunks;
+
+    // CONSTRUCTORS ////////////////
+    @Autowired
+    public TransactionImportService(TransactionService transactionService, ObjectMapper objectMapper) {
+        this.transactionService = transactionService;
+        this.transactionReader = objectMapper.readerFor(Transaction.class);
+    }
+
+    // METHODS ////////////////
+
+    /**
+     * Used to IMPORT a statement file streamed from the request body.
+     * Strategy: Read one record (a line, or a few for CSV quoted line breaks), Parse and validate it, Buffer valid Transactions, Flush a chunk every chunkSize rows.
+     * Steps:
+     *    1 -> Skip blank lines (and the header line for CSV)
+     *    2 -> If the line cannot be parsed or validateTransaction has ERRORS record them against the line number
+     *    3 -> Else buffer the Transaction, and when the buffer is full write it with TransactionService.createAll
+     *    4 -> If a chunk fails in the DB write its rows one DB transaction each, record the lines that still fail and carry on
+     * Reading and writing run on the same thread, so the body is only consumed as fast as the DB accepts
+     * chunks and at most one chunk of Transactions is held in memory at a time.
+     * @param body type InputStream -> The raw request body
+     * @param format type String -> NDJSON | CSV
+     * @return ImportReport -> Counters and per line errors
+     * @throws IOException when the body cannot be read
+     */
+    public ImportReport importStream(InputStream body, String format) throws IOException {
+
+        ImportReport report = new ImportReport();
+        List<Transaction> chunk = new ArrayList<>(chunkSize);
+        long[] chunkLines = new long[chunkSize];
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        long lineNumber = 0;
+        long nextLine = 1;
+
+        // A CSV record may span lines, errors point at its first one
+        while((line = CSV.equals(format) ? TransactionCsv.readRecord(reader) : reader.readLine()) != null) {
+            lineNumber = nextLine;
+            nextLine += 1 + line.chars().filter(c -> c == '\n').count();
+
+            // Skip blank lines and the CSV header
+            if(line.isBlank()) continue;
+            if(CSV.equals(format) && lineNumber == 1 && line.trim().equalsIgnoreCase(TransactionCsv.HEADER)) continue;
+            report.setLinesRead(report.getLinesRead() + 1);
+
+            // Parse line
+            Transaction transaction;
+            try {
+                transaction = CSV.equals(format) ? TransactionCsv.parse(line) : transactionReader.readValue(line);
+            } catch (Exception error) {
+                report.addError(lineNumber, List.of("Could not parse line: " + error.getMessage()), maxReportedErrors);
+                continue;
+            }
+
+            // Validate line
+            ArrayList<String> errors = Utiles.validateTransaction(transaction);
+            String dateError = partitionMaintenanceService == null ? null : partitionMaintenanceService.dateError(transaction.getDate());
+            if(dateError != null) errors.add(dateError);
+            if(errors.size() > 0) {
+                report.addError(lineNumber, errors, maxReportedErrors);
+                continue;
+            }
+
+            // Buffer and flush when full
+            chunkLines[chunk.size()] = lineNumber;
+            chunk.add(transaction);
+            if(chunk.size() == chunkSize) flush(chunk, chunkLines, report);
+        }
+
+        // Flush what is left
+        if(chunk.size() > 0) flush(chunk, chunkLines, report);
+
+        logger.info("Transaction import finished: {} lines, {} imported, {} failed.",
+            report.getLinesRead(), report.getImported(), report.getFailed());
+
+        return report;
+    }
+
+    // HELPERS ////////////////
+
+    private void flush(List<Transaction> chunk, long[] chunkLines, ImportReport report) {
+        // Copies are written so a rollback leaves no assigned id on the rows retried below
+        List<Transaction> copies = new ArrayList<>(chunk.size());
+        for(Transaction transaction : chunk) copies.add(new Transaction(transaction));
+        try {
+            transactionService.createAll(copies);
+            report.setImported(report.getImported() + chunk.size());
+        } catch (Exception error) {
+            // One bad row rolled the chunk back, only the lines failing on their own are reported
+            for(int i = 0; i < chunk.size(); i++) {
+                try {
+                    transactionService.create(new Transaction(chunk.get(i)));
+                    report.setImported(report.getImported() + 1);
+                } catch (Exception rowError) {
+                    report.addError(chunkLines[i], List.of("Failed to add Transaction to DB: " + rowError.getMessage()), maxReportedErrors);
+                }
+            }
+        }
+
+        report.setChunks(report.getChunks() + 1);
+        if(report.getChunks() % progressEveryChunks == 0) {
+            logger.info("Transaction import progress: {} lines read, {} imported, {} failed.",
+                report.getLinesRead(), report.getImported(), report.getFailed());
+        }
+
+        chunk.clear();
+    }
+}
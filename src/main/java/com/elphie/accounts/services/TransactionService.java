@@ -0,0 +1,585 @@
+package com.elphie.accounts.services;
+
+// =============================================================================
+// File Name: services/TransactionService.java
+// File Description:
+// This file contains the code of the Transaction Service that groups the
+// Transaction writes that have to run inside one DB transaction, together
+// with the Account balances and daily_totals rollup rows they change.
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.sql.Timestamp;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.elphie.accounts.analytics.TransactionAnalyticsStore;
+import com.elphie.accounts.analytics.TransactionRow;
+import com.elphie.accounts.config.CacheConfig;
+import com.elphie.accounts.definitions.Money;
+import com.elphie.accounts.definitions.RangeSummary;
+import com.elphie.accounts.definitions.SpendGroup;
+import com.elphie.accounts.definitions.TransactionRequest;
+import com.elphie.accounts.models.Account;
+import com.elphie.accounts.models.DailyTotal;
+import com.elphie.accounts.models.Transaction;
+import com.elphie.accounts.repositories.IAccountRepository;
+import com.elphie.accounts.repositories.IDailyTotalRepository;
+import com.elphie.accounts.repositories.ITransactionRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Root;
+
+// =============================================================================
+// Service Class
+// =============================================================================
+@Service
+public class TransactionService {
+
+    // PROPERTIES ////////////////
+    // Keys the spend breakdown can group by, mapped to their SELECT expression
+    private static final Map<String, String> GROUP_KEYS = Map.of(
+        "type", "d.type AS type",
+        "accountId", "d.accountId AS accountId"
+    );
+
+    // Units accepted by the HQL truncate() function, week starts on Monday
+    private static final Set<String> PERIODS = Set.of("day", "week", "month", "year");
+
+    @Autowired
+    private ITransactionRepository transactionRepository;
+
+    @Autowired
+    private IDailyTotalRepository dailyTotalRepository;
+
+    @Autowired
+    private IAccountRepository accountRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private UserVersionService userVersionService;
+
+    // Present when elphie.analytics.enabled=true
+    @Autowired(required = false)
+    private TransactionAnalyticsStore analyticsStore;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // METHODS ////////////////
+
+    /**
+     * Used to GET a Transaction by Id through the transactions cache.
+     * Misses read the DB and fill the cache, not found ids are not cached.
+     * @param id type Long
+     * @return Optional<Transaction>
+     */
+    @Cacheable(cacheNames = CacheConfig.TRANSACTIONS, key = "#id", unless = "#result == null")
+    public Optional<Transaction> findById(Long id) {
+        return transactionRepository.findById(id);
+    }
+
+    /**
+     * Used to get the total, count and min / max amount of a User's Transactions between two dates,
+     * from the in-memory analytics store when it is enabled, else with one aggregate query.
+     * @param userId type Long
+     * @param start type Date
+     * @param end type Date
+     * @param accountId type Long | null -> every Account
+     * @param type type String | null -> every type
+     * @return RangeSummary
+     */
+    public RangeSummary summarize(Long userId, java.sql.Date start, java.sql.Date end, Long accountId, String type) {
+        if(analyticsStore != null) return analyticsStore.summarize(userId, start, end, accountId, type);
+
+        RangeSummary summary = transactionRepository.summarize(userId, start, end, accountId, type);
+        return summary.count() == 0 ? RangeSummary.EMPTY : summary;
+    }
+
+    /**
+     * Used to get a User's spend between two dates grouped by any of type, Account and period,
+     * with one GROUP BY over the daily_totals rollup into SpendGroup rows, no entity is loaded.
+     * Steps:
+     *    1 -> Build the SELECT / GROUP BY from the whitelisted keys only (nothing from the request is concatenated)
+     *    2 -> Sum totals and counts of the rollup rows per group, ordered by the group keys
+     *    3 -> Map each Tuple to a SpendGroup, the average is total / count
+     * @param userId type Long
+     * @param start type Date
+     * @param end type Date
+     * @param by type List<String> -> any of "type", "accountId", empty for one group over the whole range
+     * @param period type String | null -> one of "day", "week", "month", "year"
+     * @return List<SpendGroup>
+     * @throws IllegalArgumentException -> unknown group key or period
+     */
+    public List<SpendGroup> group(Long userId, Date start, Date end, List<String> by, String period) {
+
+        // Group keys, in the order they are selected and sorted
+        List<String> keys = new ArrayList<>();
+        for(String key : by) {
+            if(!GROUP_KEYS.containsKey(key)) throw new IllegalArgumentException("Cannot group by " + key + ".");
+            if(!keys.contains(GROUP_KEYS.get(key))) keys.add(GROUP_KEYS.get(key));
+        }
+        if(period != null) {
+            if(!PERIODS.contains(period)) throw new IllegalArgumentException("Unknown period " + period + ".");
+            keys.add("truncate(d.date, " + period + ") AS period");
+        }
+
+        String select = keys.isEmpty() ? "" : String.join(", ", keys) + ", ";
+        String grouping = keys.stream().map(key -> key.substring(key.lastIndexOf(' ') + 1)).collect(Collectors.joining(", "));
+        String query = "SELECT " + select + "SUM(d.total) AS total, SUM(d.txCount) AS count FROM DailyTotal d"
+            + " WHERE d.userId = :userId AND d.date BETWEEN :start AND :end"
+            + (keys.isEmpty() ? "" : " GROUP BY " + grouping + " ORDER BY " + grouping);
+
+        List<SpendGroup> groups = new ArrayList<>();
+        for(Tuple row : entityManager.createQuery(query, Tuple.class)
+                .setParameter("userId", userId)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .getResultList()) {
+
+            // An empty range still returns one all-NULL row when nothing is grouped
+            Number count = row.get("count", Number.class);
+            if(count == null || count.longValue() == 0) continue;
+
+            Date day = period == null ? null : row.get("period", Date.class);
+            groups.add(new SpendGroup(
+                by.contains("type") ? row.get("type", String.class) : null,
+                by.contains("accountId") ? row.get("accountId", Long.class) : null,
+                day == null ? null : new java.sql.Date(day.getTime()),
+                row.get("total", Number.class).longValue(),
+                count.longValue()
+            ));
+        }
+
+        return groups;
+    }
+
+    /**
+     * Used to CREATE an already validated Transaction and add it to its Account balance and daily total.
+     * @param transaction type Transaction
+     * @return Transaction -> The created Transaction with its id
+     */
+    @Transactional
+    public Transaction create(Transaction transaction) {
+
+        // Set Created Date data in Transaction Object
+        transaction.setCreatedOn(new Timestamp(System.currentTimeMillis()));
+
+        // Add Transaction to DB
+        Transaction createdTransaction = transactionRepository.save(transaction);
+
+        // Add Transaction to its Account balance and daily total
+        Ledger ledger = new Ledger();
+        ledger.add(createdTransaction, 1);
+        apply(ledger);
+
+        return createdTransaction;
+    }
+
+    /**
+     * Used to CREATE a list of already validated Transactions in one DB transaction.
+     * Inserts are sent as JDBC batches, then the persistence context is flushed and cleared
+     * so repeated calls on the same request (Open-Session-in-View) do not accumulate entities.
+     * @param transactions type List<Transaction>
+     * @return List<Transaction> -> The created Transactions with their ids, detached
+     */
+    @Transactional
+    public List<Transaction> createAll(List<Transaction> transactions) {
+
+        // Set Created Date data in every Transaction Object
+        Timestamp createdOn = new Timestamp(System.currentTimeMillis());
+        for(Transaction transaction : transactions) transaction.setCreatedOn(createdOn);
+
+        // Add Transactions to DB
+        List<Transaction> createdTransactions = transactionRepository.saveAll(transactions);
+
+        // Add Transactions to the balances and rollup, one relative update per touched Account / key
+        Ledger ledger = new Ledger();
+        for(Transaction transaction : createdTransactions) ledger.add(transaction, 1);
+        apply(ledger);
+
+        // Push the batch and drop the managed copies
+        entityManager.flush();
+        entityManager.clear();
+
+        return createdTransactions;
+    }
+
+    /**
+     * Used to UPDATE a Transaction by Id and move its amount between balances and daily totals.
+     * The row is locked (SELECT ... FOR UPDATE) like in patch and delete, so two writes of one Transaction
+     * never take the same old values out of the balance and rollup.
+     * @param id type Long
+     * @param request type TransactionRequest
+     * @return Optional<Transaction> -> The updated Transaction, empty when not found
+     * @throws ParseException when the request date is not yyyy-MM-dd
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TRANSACTIONS, key = "#id")
+    public Optional<Transaction> update(Long id, TransactionRequest request) throws ParseException {
+
+        // Find and lock Transaction
+        Optional<Transaction> transaction = transactionRepository.findByIdForUpdate(id);
+        if(!transaction.isPresent()) return transaction;
+
+        // Take the old values out of the balance and rollup
+        Ledger ledger = new Ledger();
+        ledger.add(transaction.get(), -1);
+
+        // Set new data
+        transaction.get().setAccountId(Long.parseLong(request.getAccountId()));
+        transaction.get().setReference(request.getReference());
+        transaction.get().setAmount(Money.parse(request.getAmount()));
+        transaction.get().setType(request.getType());
+
+        // Parsing String date from request to SQL Date Type
+        Date date = new SimpleDateFormat("yyy-MM-dd").parse(request.getDate());
+        transaction.get().setDate(new java.sql.Date(date.getTime()));
+
+        // Set new Updated On date
+        transaction.get().setUpdatedOn(new Timestamp(System.currentTimeMillis()));
+
+        // Update Transaction and put the new values in the balance and rollup
+        Transaction updatedTransaction = transactionRepository.save(transaction.get());
+        ledger.add(updatedTransaction, 1);
+        apply(ledger);
+
+        return Optional.of(updatedTransaction);
+    }
+
+    /**
+     * Used to PATCH a Transaction by Id, writing only the fields present in the request.
+     * Steps:
+     *    1 -> If only the reference changes run one UPDATE ... WHERE id = ? and nothing else
+     *    2 -> Else lock the row (SELECT ... FOR UPDATE) to read the old account, amount, date and type,
+     *         run the same single UPDATE and move the amount between balances / daily totals
+     * @param id type Long
+     * @param request type TransactionRequest -> NULL fields are left untouched
+     * @return boolean -> false when no row has this id
+     * @throws ParseException when the request date is not yyyy-MM-dd
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TRANSACTIONS, key = "#id")
+    public boolean patch(Long id, TransactionRequest request) throws ParseException {
+
+        // Parse present fields
+        Long accountId = request.getAccountId() == null ? null : Long.parseLong(request.getAccountId());
+        Money amount = request.getAmount() == null ? null : Money.parse(request.getAmount());
+        java.sql.Date date = request.getDate() == null ? null
+            : new java.sql.Date(new SimpleDateFormat("yyyy-MM-dd").parse(request.getDate()).getTime());
+
+        // Fields that feed the balances and daily totals need the old values
+        Ledger ledger = null;
+        if(accountId != null || amount != null || date != null || request.getType() != null) {
+            Optional<Transaction> locked = transactionRepository.findByIdForUpdate(id);
+            if(!locked.isPresent()) return false;
+
+            Transaction old = locked.get();
+            entityManager.detach(old);
+
+            Transaction patched = new Transaction(
+                old.getUserId(),
+                accountId != null ? accountId : old.getAccountId(),
+                old.getReference(),
+                amount != null ? amount : old.getAmount(),
+                date != null ? date : old.getDate()
+            );
+            patched.setId(old.getId());
+            patched.setType(request.getType() != null ? request.getType() : old.getType());
+
+            ledger = new Ledger();
+            ledger.add(old, -1);
+            ledger.add(patched, 1);
+        }
+
+        // Build UPDATE with the present fields only
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Transaction> update = builder.createCriteriaUpdate(Transaction.class);
+        Root<Transaction> root = update.from(Transaction.class);
+        if(accountId != null) update.set(root.<Long>get("accountId"), accountId);
+        if(request.getReference() != null) update.set(root.<String>get("reference"), request.getReference());
+        // Money has no JDBC type of its own, an untyped parameter takes the converted column's type instead
+        @SuppressWarnings("unchecked")
+        ParameterExpression<Money> amountParameter = (ParameterExpression<Money>) (ParameterExpression<?>) builder.parameter(Object.class, "amount");
+        if(amount != null) update.set(root.<Money>get("amount"), amountParameter);
+        if(date != null) update.set(root.<java.sql.Date>get("date"), date);
+        if(request.getType() != null) update.set(root.<String>get("type"), request.getType());
+        update.set(root.<Timestamp>get("updatedOn"), new Timestamp(System.currentTimeMillis()));
+        update.where(builder.equal(root.get("id"), id));
+
+        // Update Transaction
+        Query query = entityManager.createQuery(update);
+        if(amount != null) query.setParameter("amount", amount);
+        if(query.executeUpdate() == 0) return false;
+
+        // Move the amount between balances and daily totals
+        if(ledger != null) apply(ledger);
+        else userVersionService.bump(transactionRepository.findUserIdById(id).orElse(null));
+
+        return true;
+    }
+
+    /**
+     * Used to DELETE a Transaction by Id and take it out of its Account balance and daily total.
+     * The row is locked first, a racing update or patch then finds it gone instead of moving its amount back.
+     * @param id type Long
+     * @return boolean -> false when not found
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TRANSACTIONS, key = "#id")
+    public boolean delete(Long id) {
+
+        // Find and lock Transaction
+        Optional<Transaction> transaction = transactionRepository.findByIdForUpdate(id);
+        if(!transaction.isPresent()) return false;
+
+        // Delete Transaction and take it out of the balance and rollup
+        transactionRepository.delete(transaction.get());
+        Ledger ledger = new Ledger();
+        ledger.add(transaction.get(), -1);
+        apply(ledger);
+
+        return true;
+    }
+
+    /**
+     * Used to DELETE every Transaction of a User between two dates, optionally of one Account only.
+     * Set based, no Transaction is loaded into memory:
+     *    1 -> Lock the Accounts (SELECT ... FOR UPDATE), then subtract the matching amounts from the balances.
+     *         The UPDATE runs once no create of these Accounts is in flight, so it sums the rows the DELETE removes
+     *    2 -> Delete the daily totals of the range, they only hold matching Transactions
+     *    3 -> Delete the Transactions
+     * @param userId type Long
+     * @param accountId type Long | null -> every Account of the User
+     * @param start type Date
+     * @param end type Date
+     * @return int -> Number of Transactions deleted
+     */
+    @Transactional
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, key = "#accountId", condition = "#accountId != null"),
+        @CacheEvict(cacheNames = CacheConfig.ACCOUNTS, allEntries = true, condition = "#accountId == null"),
+        @CacheEvict(cacheNames = CacheConfig.TRANSACTIONS, allEntries = true)
+    })
+    public int deleteByFilter(Long userId, Long accountId, Date start, Date end) {
+
+        // Balances, locked first
+        if(accountId != null) {
+            accountRepository.lockById(accountId, userId);
+            accountRepository.subtractTransactions(accountId, userId, start, end);
+        } else {
+            accountRepository.lockByUserId(userId);
+            accountRepository.subtractTransactions(userId, start, end);
+        }
+
+        // Daily totals and Transactions
+        dailyTotalRepository.deleteByFilter(userId, accountId, start, end);
+        int deleted = transactionRepository.deleteByFilter(userId, accountId, start, end);
+
+        // The rows are unknown here, the User is loaded again by the analytics store (after the bump, see apply)
+        userVersionService.bump(userId);
+        if(analyticsStore != null) analyticsStore.evictUser(userId);
+
+        return deleted;
+    }
+
+    /**
+     * Used to UPSERT one page of Transactions pulled from a bank provider into an Account, in one DB transaction.
+     * Rows are deduplicated by their provider id (externalId) within the Account, so a page sent twice is a no-op:
+     *    0 -> Lock the Account row: the DB only holds (account_id, external_id, date) unique, two pages of the
+     *         same Account upserted at once could both miss a row and insert it again under another date
+     *    1 -> Load the already stored rows of every id in the page with one query
+     *    2 -> Delete the removed ones and take them out of the balance and daily totals
+     *    3 -> Update the known ones that changed, moving their amount like update() does
+     *    4 -> Insert the new ones as JDBC batches
+     * @param account type Account -> Owner of every Transaction of the page
+     * @param incoming type List<Transaction> -> Added or modified Transactions, externalId set
+     * @param removed type List<String> -> externalId of the removed Transactions
+     * @return int[] -> Number of Transactions { inserted, updated, deleted }
+     */
+    @Transactional
+    public int[] upsertExternal(Account account, List<Transaction> incoming, List<String> removed) {
+
+        // Last version of each provider id wins
+        Map<String, Transaction> latest = new LinkedHashMap<>();
+        for(Transaction transaction : incoming) latest.put(transaction.getExternalId(), transaction);
+
+        Set<String> ids = new HashSet<>(latest.keySet());
+        ids.addAll(removed);
+        if(ids.isEmpty()) return new int[3];
+
+        // Pages of one Account one at a time, across instances too
+        accountRepository.lockById(account.getId(), account.getUserId());
+
+        Map<String, Transaction> stored = new HashMap<>();
+        for(Transaction transaction : transactionRepository.findByAccountIdAndExternalIdIn(account.getId(), ids)) {
+            stored.put(transaction.getExternalId(), transaction);
+        }
+
+        Cache transactions = cacheManager.getCache(CacheConfig.TRANSACTIONS);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Ledger ledger = new Ledger();
+        int[] counts = new int[3];
+
+        // Removed, flushed first so an id removed and added again in the page does not hit the unique index
+        for(String externalId : removed) {
+            Transaction transaction = stored.remove(externalId);
+            if(transaction == null) continue;
+            ledger.add(transaction, -1);
+            transactionRepository.delete(transaction);
+            transactions.evict(transaction.getId());
+            counts[2]++;
+        }
+        if(counts[2] > 0) entityManager.flush();
+
+        // Modified, managed rows are written back on flush
+        List<Transaction> inserts = new ArrayList<>();
+        for(Transaction transaction : latest.values()) {
+            transaction.setUserId(account.getUserId());
+            transaction.setAccountId(account.getId());
+
+            Transaction current = stored.get(transaction.getExternalId());
+            if(current == null) {
+                transaction.setCreatedOn(now);
+                inserts.add(transaction);
+                continue;
+            }
+            if(current.getAmount().equals(transaction.getAmount()) && current.getDate().equals(transaction.getDate())
+                && Objects.equals(current.getReference(), transaction.getReference()) && Objects.equals(current.getType(), transaction.getType())) {
+                continue;
+            }
+
+            ledger.add(current, -1);
+            current.setReference(transaction.getReference());
+            current.setAmount(transaction.getAmount());
+            current.setDate(transaction.getDate());
+            current.setType(transaction.getType());
+            current.setUpdatedOn(now);
+            ledger.add(current, 1);
+            transactions.evict(current.getId());
+            counts[1]++;
+        }
+
+        // Added
+        for(Transaction transaction : transactionRepository.saveAll(inserts)) ledger.add(transaction, 1);
+        counts[0] = inserts.size();
+
+        // Push the batch and drop the managed copies before the ledger statements,
+        // else every one of them auto-flushes and dirty checks the whole page again
+        entityManager.flush();
+        entityManager.clear();
+
+        apply(ledger);
+
+        return counts;
+    }
+
+    // HELPERS ////////////////
+
+    /**
+     * Used to write the Account balance and daily total changes of a ledger.
+     * Every change is a relative UPDATE (balance = balance + ?), never a read-modify-write, and rows
+     * are visited in key order (Accounts first, then rollup keys) so concurrent writers lock them in
+     * the same order and cannot deadlock.
+     * @param ledger type Ledger
+     * @throws IllegalArgumentException when an Account does not exist or belongs to another User
+     */
+    private void apply(Ledger ledger) {
+
+        // Account balances, cached Accounts are dropped once the DB transaction commits
+        Cache accounts = cacheManager.getCache(CacheConfig.ACCOUNTS);
+        for(Map.Entry<Long, long[]> entry : ledger.balances.entrySet()) {
+            if(entry.getValue()[0] == 0) continue;
+            Long accountId = entry.getKey();
+            accounts.evict(accountId);
+            int updated = accountRepository.adjustBalance(accountId, ledger.owners.get(accountId), entry.getValue()[0]);
+            if(updated == 0) {
+                throw new IllegalArgumentException("Account with id " + accountId + " not found for User " + ledger.owners.get(accountId) + ".");
+            }
+        }
+
+        // Daily totals
+        for(Map.Entry<DailyTotal.Key, long[]> entry : ledger.dailyTotals.entrySet()) {
+            DailyTotal.Key key = entry.getKey();
+            long amount = entry.getValue()[0];
+            long count = entry.getValue()[1];
+
+            // Same key removed and added again (reference only edit)
+            if(amount == 0 && count == 0) continue;
+
+            dailyTotalRepository.ensureRow(key.getUserId(), key.getAccountId(), key.getDate(), key.getType());
+            dailyTotalRepository.increment(key.getUserId(), key.getAccountId(), key.getDate(), key.getType(), amount, count);
+            if(count < 0) {
+                dailyTotalRepository.deleteIfEmpty(key.getUserId(), key.getAccountId(), key.getDate(), key.getType());
+            }
+        }
+
+        // ETag versions then analytics columns, after the commit. The version moves first so an analytics
+        // load racing this write always sees either the patch or the version change
+        for(Long userId : new HashSet<>(ledger.owners.values())) userVersionService.bump(userId);
+        if(analyticsStore != null) analyticsStore.apply(ledger.rows);
+    }
+
+    // Net balance and rollup changes of one DB transaction in minor units, sorted by key
+    private static class Ledger {
+
+        private final Map<Long, long[]> balances = new TreeMap<>();
+        private final Map<Long, Long> owners = new HashMap<>();
+        private final Map<DailyTotal.Key, long[]> dailyTotals = new TreeMap<>();
+        private final List<TransactionRow> rows = new ArrayList<>();
+
+        private void add(Transaction transaction, int sign) {
+            long amount = sign * transaction.getAmount().minor();
+
+            // One Account can only take Transactions of the User owning it
+            Long owner = owners.putIfAbsent(transaction.getAccountId(), transaction.getUserId());
+            if(owner != null && !owner.equals(transaction.getUserId())) {
+                throw new IllegalArgumentException("Account with id " + transaction.getAccountId() + " cannot take Transactions of several Users.");
+            }
+            balances.computeIfAbsent(transaction.getAccountId(), id -> new long[1])[0] += amount;
+
+            // Legacy rows without a date or type were left out of the rollup (V2) and of the analytics columns
+            if(transaction.getDate() == null) return;
+            rows.add(TransactionRow.of(transaction, sign));
+            if(transaction.getType() == null) return;
+
+            DailyTotal.Key key = new DailyTotal.Key(
+                transaction.getUserId(), transaction.getAccountId(), transaction.getDate(), transaction.getType()
+            );
+            long[] delta = dailyTotals.computeIfAbsent(key, k -> new long[2]);
+            delta[0] += amount;
+            delta[1] += sign;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.elphie.accounts.services;
+
+// =============================================================================
+// File Name: services/UserVersionService.java
+// File Description:
+// This file contains the per User version counters bumped by every Account and
+// Transaction write, read lists use them as ETags to answer polls with 304
+// =============================================================================
+
+// =============================================================================
+// Imports
+// =============================================================================
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// =============================================================================
+// Service Class
+// =============================================================================
+@Service
+public class UserVersionService {
+
+    // PROPERTIES ////////////////
+
+    // Users hash into a fixed number of counters: bounded memory, two Users sharing one only cost an extra 200
+    private final AtomicLongArray versions;
+
+    // Time of the last committed write (epoch millis) in the same slots, drives the read replica stickiness
+    private final AtomicLongArray writes;
+
+    // Counters start again at 0 on restart, the start time keeps ETags of the previous run from matching
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // CONSTRUCTORS ////////////////
+    public UserVersionService(@Value("${elphie.etag.counters:65536}") int counters) {
+        this.versions = new AtomicLongArray(counters);
+        this.writes = new AtomicLongArray(counters);
+    }
+
+    // METHODS ////////////////
+
+    /**
+     * Used by the write paths to mark a User's data as changed once the DB transaction commits.
+     * Bumping after the commit means a read that saw the new version always saw the new rows.
+     * @param userId type Long
+     */
+    public void bump(Long userId) {
+        if(userId == null) return;
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) {
+            committed(slot(userId));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                committed(slot(userId));
+            }
+        });
+    }
+
+    /**
+     * Used to tell whether a User wrote recently, so its reads stay on the primary DB.
+     * @param userId type Long
+     * @param window type Duration
+     * @return boolean -> true when the last committed write of the User is younger than window
+     */
+    public boolean writtenWithin(Long userId, Duration window) {
+        return System.currentTimeMillis() - writes.get(slot(userId)) < window.toMillis();
+    }
+
+    /**
+     * Used to tell whether a User wrote between two reads: the version only moves once a write has committed.
+     * @param userId type Long
+     * @return long -> Shared by the Users of the same slot, so it may move without a write of this User
+     */
+    public long version(Long userId) {
+        return versions.get(slot(userId));
+    }
+
+    /**
+     * Used to build the ETag of a read of a User's data, to be taken BEFORE the read runs.
+     * @param userId type Long
+     * @param parameters type Object... -> Endpoint and request parameters, so two reads never share an ETag
+     * @return String -> Weak ETag, the JSON body is not byte for byte the same across restarts
+     */
+    public String etag(Long userId, Object... parameters) {
+        StringBuilder key = new StringBuilder();
+        for(Object parameter : parameters) key.append(parameter).append('\u0000');
+        return "W/\"" + epoch + "-" + Long.toString(versions.get(slot(userId)), 36) + "-" + Integer.toHexString(key.toString().hashCode()) + "\"";
+    }
+
+    // HELPERS ////////////////
+
+    private void committed(int slot) {
+        writes.set(slot, System.currentTimeMillis());
+        versions.incrementAndGet(slot);
+    }
+
+    private int slot(Long userId) {
+        return (int) Math.floorMod(Long.hashCode(userId) * 0x9E3779B9L, (long) versions.length());
+    }
+}
@@ -0,0 +1,42 @@
+-- =============================================================================
+-- V1: Accounts, Transactions and the daily_totals rollup.
+-- IF NOT EXISTS lets databases created by Hibernate ddl-auto be adopted
+-- (see spring.flyway.baseline-on-migrate).
+-- =============================================================================
+
+CREATE TABLE IF NOT EXISTS accounts (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT,
+    name VARCHAR(255),
+    type VARCHAR(255),
+    iban VARCHAR(255),
+    balance DOUBLE PRECISION,
+    plaid_id VARCHAR(255),
+    created_on TIMESTAMP(6),
+    updated_on TIMESTAMP(6)
+);
+
+-- Ids come from transactions_seq, allocationSize 50 on the entity
+CREATE SEQUENCE IF NOT EXISTS transactions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT,
+    account_id BIGINT,
+    reference VARCHAR(255),
+    amount DOUBLE PRECISION,
+    date DATE,
+    type VARCHAR(255),
+    created_on TIMESTAMP(6),
+    updated_on TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS daily_totals (
+    user_id BIGINT NOT NULL,
+    account_id BIGINT NOT NULL,
+    date DATE NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    total DOUBLE PRECISION NOT NULL,
+    tx_count BIGINT NOT NULL,
+    PRIMARY KEY (user_id, account_id, date, type)
+);
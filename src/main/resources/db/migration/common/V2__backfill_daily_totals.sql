@@ -0,0 +1,14 @@
+-- =============================================================================
+-- V2: Fill the rollup from the Transactions already in the table.
+-- From here on the Transaction write paths keep it up to date.
+-- The baseline schema let Transactions go without a date, type, User or
+-- Account, the rollup key cannot: such legacy rows are left out of the rollup
+-- (they stay in transactions and in the balances) rather than deleted here.
+-- =============================================================================
+
+INSERT INTO daily_totals (user_id, account_id, date, type, total, tx_count)
+SELECT user_id, account_id, date, type, SUM(amount), COUNT(*)
+FROM transactions
+WHERE user_id IS NOT NULL AND account_id IS NOT NULL AND date IS NOT NULL AND type IS NOT NULL
+AND NOT EXISTS (SELECT 1 FROM daily_totals)
+GROUP BY user_id, account_id, date, type;
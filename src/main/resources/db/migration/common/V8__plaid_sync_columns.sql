@@ -0,0 +1,11 @@
+-- =============================================================================
+-- V8: Columns of the Plaid transaction sync.
+-- accounts.plaid_access_token / plaid_cursor: Item token and the last
+-- /transactions/sync cursor of each linked Account.
+-- transactions.external_id: Plaid transaction_id, synced rows are upserted
+-- by (account_id, external_id), see V9.
+-- =============================================================================
+
+ALTER TABLE accounts ADD COLUMN IF NOT EXISTS plaid_access_token VARCHAR(255);
+ALTER TABLE accounts ADD COLUMN IF NOT EXISTS plaid_cursor VARCHAR(2048);
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS external_id VARCHAR(255);
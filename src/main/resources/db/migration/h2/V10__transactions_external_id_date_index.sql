@@ -0,0 +1,8 @@
+-- =============================================================================
+-- V10: Synced Transactions deduplicated by (account_id, external_id, date) (H2, used by tests).
+-- Keep in step with db/migration/postgresql/V10__partition_key_indexes.sql, the
+-- partitioned PostgreSQL table can only hold unique indexes with its date key.
+-- =============================================================================
+
+CREATE UNIQUE INDEX IF NOT EXISTS transactions_account_id_external_id_date_idx ON transactions (account_id, external_id, date);
+DROP INDEX IF EXISTS transactions_account_id_external_id_idx;
@@ -0,0 +1,8 @@
+-- =============================================================================
+-- V4: Composite indexes for the repository access paths (H2, used by tests).
+-- Keep in step with db/migration/postgresql/V4__access_path_indexes.sql.
+-- =============================================================================
+
+CREATE INDEX IF NOT EXISTS accounts_user_id_name_idx ON accounts (user_id, name);
+CREATE INDEX IF NOT EXISTS transactions_user_id_date_idx ON transactions (user_id, date);
+CREATE INDEX IF NOT EXISTS transactions_user_id_account_id_date_idx ON transactions (user_id, account_id, date);
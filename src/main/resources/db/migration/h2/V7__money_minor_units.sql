@@ -0,0 +1,16 @@
+-- =============================================================================
+-- V7: Money in integer minor units (cents) (H2, used by tests).
+-- Keep in step with db/migration/postgresql/V7__money_minor_units.sql.
+-- =============================================================================
+
+UPDATE transactions SET amount = ROUND(amount * 100);
+ALTER TABLE transactions ALTER COLUMN amount SET DATA TYPE BIGINT;
+
+UPDATE accounts SET balance = ROUND(balance * 100);
+ALTER TABLE accounts ALTER COLUMN balance SET DATA TYPE BIGINT;
+
+ALTER TABLE daily_totals ALTER COLUMN total SET DATA TYPE BIGINT;
+UPDATE daily_totals d SET total = COALESCE((
+    SELECT SUM(t.amount) FROM transactions t
+    WHERE t.user_id = d.user_id AND t.account_id = d.account_id AND t.date = d.date AND t.type = d.type
+), 0);
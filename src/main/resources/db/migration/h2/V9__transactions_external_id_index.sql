@@ -0,0 +1,6 @@
+-- =============================================================================
+-- V9: Unique index deduplicating synced Transactions by their provider id (H2, used by tests).
+-- Keep in step with db/migration/postgresql/V9__transactions_external_id_index.sql.
+-- =============================================================================
+
+CREATE UNIQUE INDEX IF NOT EXISTS transactions_account_id_external_id_idx ON transactions (account_id, external_id);
@@ -0,0 +1,10 @@
+-- =============================================================================
+-- V10: Unique indexes holding the date partition key, built ahead of V13.
+-- A partitioned table can only have unique indexes that include its partition
+-- key: the primary key becomes (id, date) and the provider id dedup becomes
+-- (account_id, external_id, date). Built CONCURRENTLY so production writes are
+-- not blocked, V13 then attaches them instead of building them under lock.
+-- =============================================================================
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS transactions_id_date_idx ON transactions (id, date);
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS transactions_account_id_external_id_date_idx ON transactions (account_id, external_id, date);
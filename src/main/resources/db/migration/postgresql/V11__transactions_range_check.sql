@@ -0,0 +1,35 @@
+-- =============================================================================
+-- V11: CHECK constraint proving every existing Transaction is dated before the
+-- first month V13 partitions, so attaching the table skips its validation scan.
+-- The bound is the month after the latest date (future dated rows included),
+-- at least the next month. Rows without a date cannot live in a table
+-- partitioned by date: they are moved to transactions_undated and reported for
+-- a manual fix (Account balances still count them).
+-- Added NOT VALID (brief lock, no scan) and validated by V12.
+-- =============================================================================
+
+CREATE TABLE IF NOT EXISTS transactions_undated (LIKE transactions INCLUDING DEFAULTS);
+
+DO $$
+DECLARE
+    undated BIGINT;
+    bound DATE;
+BEGIN
+    WITH moved AS (DELETE FROM transactions WHERE date IS NULL RETURNING *)
+    INSERT INTO transactions_undated SELECT * FROM moved;
+    GET DIAGNOSTICS undated = ROW_COUNT;
+    IF undated > 0 THEN
+        RAISE WARNING 'V11: % Transactions without a date moved to transactions_undated.', undated;
+    END IF;
+
+    -- GREATEST skips the NULL max of an empty table
+    SELECT GREATEST(
+        date_trunc('month', current_date) + interval '1 month',
+        date_trunc('month', max(date)) + interval '1 month'
+    )::date INTO bound FROM transactions;
+
+    EXECUTE format(
+        'ALTER TABLE transactions ADD CONSTRAINT transactions_legacy_range CHECK (date IS NOT NULL AND date < %L) NOT VALID',
+        bound
+    );
+END $$;
@@ -0,0 +1,7 @@
+-- =============================================================================
+-- V12: Validate the V11 constraint. Scans the table under SHARE UPDATE EXCLUSIVE,
+-- reads and writes go on meanwhile. Its own migration so the scan does not run
+-- under the lock V11 took to add the constraint.
+-- =============================================================================
+
+ALTER TABLE transactions VALIDATE CONSTRAINT transactions_legacy_range;
@@ -0,0 +1,72 @@
+-- =============================================================================
+-- V13: transactions becomes a table partitioned by RANGE (date), one partition
+-- per month. No row is copied: the existing table is attached as the
+-- transactions_legacy partition holding every date before the bound V11 chose,
+-- its range is proven by the V12 constraint and its indexes by V10 and earlier
+-- migrations, so every step below is a catalog change under a brief lock.
+-- Partitions for the following months are created here and kept ahead by
+-- PartitionMaintenanceService, which also detaches old ones for archival.
+-- =============================================================================
+
+-- The validated constraint proves it, no scan
+ALTER TABLE transactions ALTER COLUMN date SET NOT NULL;
+
+-- Free the names for the partitioned table and its indexes
+ALTER TABLE transactions RENAME TO transactions_legacy;
+ALTER INDEX IF EXISTS transactions_user_id_date_idx RENAME TO transactions_legacy_user_id_date_idx;
+ALTER INDEX IF EXISTS transactions_user_id_account_id_date_idx RENAME TO transactions_legacy_user_id_account_id_date_idx;
+ALTER INDEX IF EXISTS transactions_reference_trgm_idx RENAME TO transactions_legacy_reference_trgm_idx;
+ALTER INDEX IF EXISTS transactions_id_date_idx RENAME TO transactions_legacy_id_date_idx;
+ALTER INDEX IF EXISTS transactions_account_id_external_id_date_idx RENAME TO transactions_legacy_account_id_external_id_date_idx;
+
+-- The partitioned primary key (id, date) only adopts a child index backing a constraint
+ALTER TABLE transactions_legacy ADD CONSTRAINT transactions_legacy_id_date_key UNIQUE USING INDEX transactions_legacy_id_date_idx;
+
+-- Superseded by the (account_id, external_id, date) index. From here the DB no longer stops the same
+-- provider id twice in an Account under two dates (Plaid moving a Transaction's date): the dedup is
+-- TransactionService.upsertExternal matching stored rows by (account_id, external_id) alone
+DROP INDEX IF EXISTS transactions_account_id_external_id_idx;
+
+CREATE TABLE transactions (
+    id BIGINT NOT NULL,
+    user_id BIGINT,
+    account_id BIGINT,
+    reference VARCHAR(255),
+    amount BIGINT,
+    date DATE NOT NULL,
+    type VARCHAR(255),
+    created_on TIMESTAMP(6),
+    updated_on TIMESTAMP(6),
+    external_id VARCHAR(255),
+    PRIMARY KEY (id, date)
+) PARTITION BY RANGE (date);
+
+-- Created on the empty parent, the attach below adopts the matching legacy indexes
+CREATE INDEX transactions_user_id_date_idx ON transactions (user_id, date);
+CREATE INDEX transactions_user_id_account_id_date_idx ON transactions (user_id, account_id, date);
+CREATE INDEX transactions_reference_trgm_idx ON transactions USING gin (reference gin_trgm_ops);
+CREATE UNIQUE INDEX transactions_account_id_external_id_date_idx ON transactions (account_id, external_id, date);
+
+DO $$
+DECLARE
+    bound DATE;
+    first_day DATE;
+BEGIN
+    -- Same bound as the constraint, read back so the attach needs no scan
+    SELECT substring(pg_get_constraintdef(oid) FROM '''(\d{4}-\d{2}-\d{2})''')::date INTO bound
+    FROM pg_constraint WHERE conname = 'transactions_legacy_range' AND conrelid = 'transactions_legacy'::regclass;
+
+    EXECUTE format('ALTER TABLE transactions ATTACH PARTITION transactions_legacy FOR VALUES FROM (MINVALUE) TO (%L)', bound);
+
+    -- Next 6 months, the application keeps elphie.partitions.months-ahead ready from here
+    FOR i IN 0..5 LOOP
+        first_day := (bound + make_interval(months => i))::date;
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+            'transactions_' || to_char(first_day, '"y"YYYY"m"MM'), first_day, (first_day + interval '1 month')::date
+        );
+    END LOOP;
+END $$;
+
+-- The partition bound replaces it
+ALTER TABLE transactions_legacy DROP CONSTRAINT transactions_legacy_range;
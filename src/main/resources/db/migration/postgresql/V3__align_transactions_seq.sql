@@ -0,0 +1,7 @@
+-- =============================================================================
+-- V3: Move transactions_seq past the ids handed out while the column was IDENTITY.
+-- =============================================================================
+
+SELECT setval('transactions_seq', m.max_id)
+FROM (SELECT MAX(id) AS max_id FROM transactions) m
+WHERE m.max_id > (SELECT last_value FROM transactions_seq);
@@ -0,0 +1,10 @@
+-- =============================================================================
+-- V4: Composite indexes for the repository access paths.
+-- Built CONCURRENTLY so production writes are not blocked, Flyway runs this
+-- migration outside a DB transaction. Must match the @Table indexes on the
+-- entities, SchemaIndexVerifier checks it on start.
+-- =============================================================================
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS accounts_user_id_name_idx ON accounts (user_id, name);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS transactions_user_id_date_idx ON transactions (user_id, date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS transactions_user_id_account_id_date_idx ON transactions (user_id, account_id, date);
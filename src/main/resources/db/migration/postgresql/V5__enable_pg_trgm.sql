@@ -0,0 +1,5 @@
+-- =============================================================================
+-- V5: Trigram support for the reference search.
+-- =============================================================================
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,5 @@
+-- =============================================================================
+-- V6: Trigram GIN index serving ILIKE / LIKE '%query%' on transactions.reference.
+-- =============================================================================
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS transactions_reference_trgm_idx ON transactions USING gin (reference gin_trgm_ops);
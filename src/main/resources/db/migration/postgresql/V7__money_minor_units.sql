@@ -0,0 +1,28 @@
+-- =============================================================================
+-- V7: Money in integer minor units (cents), see definitions/Money.
+-- Stops without changing anything when a stored value is not a whole number
+-- of cents, rounding only removes binary floating point noise. The rollup is
+-- rebuilt from the converted Transactions so its sums are exact.
+-- ALTER ... TYPE rewrites each table under an exclusive lock, run it in a
+-- maintenance window on large tables.
+-- =============================================================================
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM transactions WHERE abs(amount * 100 - round(amount * 100)) > 0.01)
+        OR EXISTS (SELECT 1 FROM accounts WHERE abs(balance * 100 - round(balance * 100)) > 0.01) THEN
+        RAISE EXCEPTION 'Amounts with fractions of a cent found, fix them before migrating to minor units';
+    END IF;
+END $$;
+
+ALTER TABLE transactions ALTER COLUMN amount TYPE BIGINT USING round(amount * 100)::BIGINT;
+ALTER TABLE accounts ALTER COLUMN balance TYPE BIGINT USING round(balance * 100)::BIGINT;
+
+ALTER TABLE daily_totals ALTER COLUMN total TYPE BIGINT USING 0;
+UPDATE daily_totals d SET total = s.total
+FROM (
+    SELECT user_id, account_id, date, type, SUM(amount) AS total
+    FROM transactions
+    GROUP BY user_id, account_id, date, type
+) s
+WHERE d.user_id = s.user_id AND d.account_id = s.account_id AND d.date = s.date AND d.type = s.type;
@@ -0,0 +1,7 @@
+-- =============================================================================
+-- V9: Unique index deduplicating synced Transactions by their provider id.
+-- Built CONCURRENTLY so production writes are not blocked, NULL external_id
+-- (Transactions created in the app) never collide.
+-- =============================================================================
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS transactions_account_id_external_id_idx ON transactions (account_id, external_id);
@@ -0,0 +1,109 @@
+package com.elphie.accounts.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import com.elphie.accounts.definitions.Money;
+import com.elphie.accounts.definitions.RangeSummary;
+import com.elphie.accounts.repositories.ITransactionRepository;
+import com.elphie.accounts.services.UserVersionService;
+
+// The store answers like the aggregate query would, before and after writes are applied to loaded columns
+class TransactionAnalyticsStoreTests {
+
+	private static final long USER_ID = 7L;
+	private static final Date START = Date.valueOf("2024-01-01");
+	private static final Date END = Date.valueOf("2024-12-31");
+
+	private final ITransactionRepository transactionRepository = mock(ITransactionRepository.class);
+	private final UserVersionService userVersionService = new UserVersionService(1024);
+	private TransactionAnalyticsStore store;
+
+	@BeforeEach
+	void setUp() {
+		// id, date, amount, accountId, type
+		List<Object[]> rows = new ArrayList<>();
+		rows.add(new Object[] { 1L, Date.valueOf("2024-01-05"), Money.ofMinor(-1000), 10L, "expense" });
+		rows.add(new Object[] { 2L, Date.valueOf("2024-02-10"), Money.ofMinor(250000), 10L, "income" });
+		rows.add(new Object[] { 3L, Date.valueOf("2024-02-11"), Money.ofMinor(-4000), 20L, "expense" });
+		rows.add(new Object[] { 4L, Date.valueOf("2024-03-01"), Money.ofMinor(-500), 20L, "fee" });
+		rows.add(new Object[] { 5L, Date.valueOf("2025-01-01"), Money.ofMinor(-9999), 10L, "expense" });
+		when(transactionRepository.findColumnsByUserId(USER_ID)).thenReturn(rows);
+		store = new TransactionAnalyticsStore(transactionRepository, userVersionService, DataSize.ofMegabytes(1));
+	}
+
+	@Test
+	void summarizesWithAndWithoutFilters() {
+		assertSummary(store.summarize(USER_ID, START, END, null, null), 244500, 4, -4000, 250000);
+		assertSummary(store.summarize(USER_ID, START, END, 10L, null), 249000, 2, -1000, 250000);
+		assertSummary(store.summarize(USER_ID, START, END, null, "expense"), -5000, 2, -4000, -1000);
+		assertSummary(store.summarize(USER_ID, START, END, 20L, "expense"), -4000, 1, -4000, -4000);
+		assertSummary(store.summarize(USER_ID, Date.valueOf("2024-02-11"), Date.valueOf("2024-03-01"), null, null), -4500, 2, -4000, -500);
+		assertEquals(RangeSummary.EMPTY, store.summarize(USER_ID, START, END, 30L, null));
+		assertEquals(RangeSummary.EMPTY, store.summarize(USER_ID, START, END, null, "transfer"));
+		verify(transactionRepository, times(1)).findColumnsByUserId(USER_ID);
+	}
+
+	@Test
+	void typeFilterLoadsTheUserFirst() {
+		// Nothing loaded yet (fresh start), the type is only known from the User's rows
+		assertSummary(store.summarize(USER_ID, START, END, null, "fee"), -500, 1, -500, -500);
+	}
+
+	@Test
+	void appliesWritesAfterASummary() {
+		store.summarize(USER_ID, START, END, null, null);
+
+		store.apply(List.of(
+			new TransactionRow(6L, USER_ID, day("2024-06-01"), -300000, 20L, "rent", 1),
+			new TransactionRow(3L, USER_ID, day("2024-02-11"), -4000, 20L, "expense", -1),
+			new TransactionRow(1L, USER_ID, day("2024-01-05"), -1000, 10L, "expense", -1),
+			new TransactionRow(1L, USER_ID, day("2024-04-05"), -1500, 10L, "expense", 1)
+		));
+
+		assertSummary(store.summarize(USER_ID, START, END, null, null), -52000, 4, -300000, 250000);
+		assertSummary(store.summarize(USER_ID, START, END, null, "expense"), -1500, 1, -1500, -1500);
+		assertSummary(store.summarize(USER_ID, START, END, 20L, "rent"), -300000, 1, -300000, -300000);
+		assertSummary(store.summarize(USER_ID, Date.valueOf("2024-01-01"), Date.valueOf("2024-03-31"), null, null), 249500, 2, -500, 250000);
+		verify(transactionRepository, times(1)).findColumnsByUserId(USER_ID);
+	}
+
+	@Test
+	void reloadsWhenAWriteCommitsDuringTheLoad() {
+		List<Object[]> stale = List.of(new Object[][] { { 1L, Date.valueOf("2024-01-05"), Money.ofMinor(-1000), 10L, "expense" } });
+		List<Object[]> fresh = List.of(new Object[][] {
+			{ 1L, Date.valueOf("2024-01-05"), Money.ofMinor(-1000), 10L, "expense" },
+			{ 2L, Date.valueOf("2024-01-06"), Money.ofMinor(-2000), 10L, "expense" }
+		});
+
+		// The write commits after the first read took its snapshot, its apply finds no columns to patch
+		when(transactionRepository.findColumnsByUserId(USER_ID)).thenAnswer(call -> {
+			userVersionService.bump(USER_ID);
+			store.apply(List.of(new TransactionRow(2L, USER_ID, day("2024-01-06"), -2000, 10L, "expense", 1)));
+			return stale;
+		}).thenReturn(fresh);
+
+		assertSummary(store.summarize(USER_ID, START, END, null, null), -3000, 2, -2000, -1000);
+		assertSummary(store.summarize(USER_ID, START, END, null, null), -3000, 2, -2000, -1000);
+		verify(transactionRepository, times(2)).findColumnsByUserId(USER_ID);
+	}
+
+	private static void assertSummary(RangeSummary summary, long total, long count, long min, long max) {
+		assertEquals(new RangeSummary(Money.ofMinor(total), count, Money.ofMinor(min), Money.ofMinor(max)), summary);
+	}
+
+	private static int day(String date) {
+		return (int) Date.valueOf(date).toLocalDate().toEpochDay();
+	}
+}
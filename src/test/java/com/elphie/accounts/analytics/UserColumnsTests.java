@@ -0,0 +1,63 @@
+package com.elphie.accounts.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+// Reads interleaved with every kind of write (appends, in place edits, removals, date moves, growth)
+// answer like a scan of the live rows, whether the trees were point updated or rebuilt
+class UserColumnsTests {
+
+	@Test
+	void interleavedWritesAndReadsMatchAScan() {
+		Random random = new Random(42);
+		UserColumns columns = new UserColumns(0);
+		List<long[]> rows = new ArrayList<>(); // id, day, amount
+		long nextId = 1;
+
+		for(int step = 0; step < 5000; step++) {
+			int action = random.nextInt(10);
+			if(action < 5 || rows.isEmpty()) {
+				// Mostly appends (new id, latest days), sometimes a row in the past
+				int day = action == 0 ? random.nextInt(100) : 100 + step / 10;
+				long[] row = { nextId++, day, random.nextInt(20001) - 10000 };
+				rows.add(row);
+				columns.upsert(row[0], (int) row[1], row[2], 1L, (short) 0);
+			} else if(action < 8) {
+				// Edit in place
+				long[] row = rows.get(random.nextInt(rows.size()));
+				row[2] = random.nextInt(20001) - 10000;
+				columns.upsert(row[0], (int) row[1], row[2], 1L, (short) 0);
+			} else if(action < 9) {
+				long[] row = rows.remove(random.nextInt(rows.size()));
+				columns.remove(row[0], (int) row[1]);
+			} else {
+				// Date move
+				long[] row = rows.get(random.nextInt(rows.size()));
+				columns.remove(row[0], (int) row[1]);
+				row[1] = random.nextInt(100 + step / 10 + 1);
+				columns.upsert(row[0], (int) row[1], row[2], 1L, (short) 0);
+			}
+
+			int from = random.nextInt(100 + step / 10 + 1);
+			int to = from + random.nextInt(200);
+			assertArrayEquals(scan(rows, from, to), columns.summarize(from, to, null, null), "step " + step);
+		}
+	}
+
+	private static long[] scan(List<long[]> rows, int from, int to) {
+		long total = 0, count = 0, min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+		for(long[] row : rows) {
+			if(row[1] < from || row[1] > to) continue;
+			total += row[2];
+			count++;
+			min = Math.min(min, row[2]);
+			max = Math.max(max, row[2]);
+		}
+		return count == 0 ? new long[] { 0, 0, 0, 0 } : new long[] { total, count, min, max };
+	}
+}
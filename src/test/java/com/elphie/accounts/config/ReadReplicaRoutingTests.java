@@ -0,0 +1,102 @@
+package com.elphie.accounts.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+// Two local in-memory H2 databases stand in for the primary and its replica, nothing replicates between them:
+// a row only in the replica shows a read was served there, a row only in the primary that it was not.
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+	"spring.datasource.url=" + ReadReplicaRoutingTests.PRIMARY_URL,
+	"elphie.replicas.enabled=true",
+	"elphie.replicas.urls=" + ReadReplicaRoutingTests.REPLICA_URL,
+	"elphie.replicas.stickiness=500ms"
+})
+class ReadReplicaRoutingTests {
+
+	static final String PRIMARY_URL = "jdbc:h2:mem:elphie_primary_db;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;LOCK_TIMEOUT=10000";
+	static final String REPLICA_URL = "jdbc:h2:mem:elphie_replica_db;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+	private static final long USER_ID = 9400L;
+
+	// The replica gets the schema from the same migrations, as a streaming replica would
+	private static final JdbcTemplate replica = migrate();
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+	@Test
+	void readsGoToTheReplicaOnceTheUserStopsWriting() throws Exception {
+		replica.update("INSERT INTO accounts (user_id, name, type, iban, balance, created_on) VALUES (?, 'Replica copy', 'current', 'IE00REPLICA', 0, CURRENT_TIMESTAMP)", USER_ID);
+
+		// Writes go to the primary
+		HttpResponse<String> created = send(HttpRequest.newBuilder(uri("/accounts/create"))
+			.header("Content-Type", "application/json")
+			.POST(HttpRequest.BodyPublishers.ofString("{\"userId\":" + USER_ID + ",\"name\":\"Primary\",\"type\":\"current\",\"iban\":\"IE00PRIMARY\",\"balance\":0}")));
+		assertEquals(200, created.statusCode());
+		assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts WHERE user_id = ?", Integer.class, USER_ID));
+		assertEquals(1, replica.queryForObject("SELECT COUNT(*) FROM accounts WHERE user_id = ?", Integer.class, USER_ID));
+
+		// Read-your-writes: the User just wrote, its reads stay on the primary
+		String list = send(HttpRequest.newBuilder(uri("/accounts/get?userId=" + USER_ID + "&query=")).GET()).body();
+		assertTrue(list.contains("\"Primary\""), list);
+
+		// Past the stickiness window the replica answers
+		Thread.sleep(700);
+		list = send(HttpRequest.newBuilder(uri("/accounts/get?userId=" + USER_ID + "&query=")).GET()).body();
+		assertTrue(list.contains("\"Replica copy\""), list);
+	}
+
+	@Test
+	void writesOnAnotherInstanceKeepReadsOnThePrimary() throws Exception {
+		long userId = USER_ID + 1;
+		replica.update("INSERT INTO accounts (user_id, name, type, iban, balance, created_on) VALUES (?, 'Replica copy', 'current', 'IE00REPLICA', 0, CURRENT_TIMESTAMP)", userId);
+		jdbcTemplate.update("INSERT INTO accounts (user_id, name, type, iban, balance, created_on) VALUES (?, 'Primary', 'current', 'IE00PRIMARY', 0, CURRENT_TIMESTAMP)", userId);
+
+		// Every write hands the client its time
+		HttpResponse<String> written = send(HttpRequest.newBuilder(uri("/accounts/create"))
+			.header("Content-Type", "application/json")
+			.POST(HttpRequest.BodyPublishers.ofString("{}")));
+		assertTrue(written.headers().firstValue("Set-Cookie").orElse("").startsWith(ReadReplicaConfig.LAST_WRITE_COOKIE + "="));
+
+		// This instance never saw the User write, the cookie from the other one keeps it on the primary
+		String path = "/accounts/get?userId=" + userId + "&query=";
+		String list = send(HttpRequest.newBuilder(uri(path)).header("Cookie", ReadReplicaConfig.LAST_WRITE_COOKIE + "=" + System.currentTimeMillis()).GET()).body();
+		assertTrue(list.contains("\"Primary\""), list);
+
+		list = send(HttpRequest.newBuilder(uri(path)).header("Cookie", ReadReplicaConfig.LAST_WRITE_COOKIE + "=" + (System.currentTimeMillis() - 5000)).GET()).body();
+		assertTrue(list.contains("\"Replica copy\""), list);
+	}
+
+	private URI uri(String path) {
+		return URI.create("http://localhost:" + port + path);
+	}
+
+	private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+		return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static JdbcTemplate migrate() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "sa", "");
+		Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/common", "classpath:db/migration/h2").load().migrate();
+		return new JdbcTemplate(dataSource);
+	}
+}
@@ -0,0 +1,86 @@
+package com.elphie.accounts.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import com.elphie.accounts.definitions.Money;
+import com.elphie.accounts.models.Account;
+import com.elphie.accounts.models.Transaction;
+import com.elphie.accounts.repositories.IAccountRepository;
+import com.elphie.accounts.services.TransactionService;
+
+// Polls of an unchanged User are answered 304 from the ETag, any write of the User makes the next poll a 200.
+// Large lists go out gzip compressed when the client accepts it.
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class ConditionalGetTests {
+
+	private static final long USER_ID = 9300L;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private IAccountRepository accountRepository;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+	@Test
+	void unchangedPollsAreNotModified() throws Exception {
+		long accountId = accountRepository.save(new Account(USER_ID, "Polled", "current", "IE00POLL", Money.ZERO)).getId();
+		List<Transaction> transactions = new ArrayList<>();
+		for(int i = 0; i < 50; i++) transactions.add(transaction(accountId, "CARD PAYMENT " + i));
+		transactionService.createAll(transactions);
+
+		String path = "/transactions/get?userId=" + USER_ID + "&start=2024-01-01&end=2024-12-31";
+		HttpResponse<byte[]> first = get(path, null);
+		assertEquals(200, first.statusCode());
+		String etag = first.headers().firstValue("ETag").orElse(null);
+		assertNotNull(etag);
+		assertEquals("gzip", first.headers().firstValue("Content-Encoding").orElse(null));
+
+		// Same data, same ETag
+		HttpResponse<byte[]> unchanged = get(path, etag);
+		assertEquals(304, unchanged.statusCode());
+		assertEquals(0, unchanged.body().length);
+
+		// A write of the User changes the version
+		transactionService.create(transaction(accountId, "CARD PAYMENT LATE"));
+		HttpResponse<byte[]> changed = get(path, etag);
+		assertEquals(200, changed.statusCode());
+		assertNotEquals(etag, changed.headers().firstValue("ETag").orElse(null));
+
+		// Other parameters of the same User never share the ETag
+		HttpResponse<byte[]> filtered = get("/transactions/get?userId=" + USER_ID + "&query=CARD", changed.headers().firstValue("ETag").get());
+		assertEquals(200, filtered.statusCode());
+	}
+
+	private HttpResponse<byte[]> get(String path, String etag) throws Exception {
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).header("Accept-Encoding", "gzip");
+		if(etag != null) request.header("If-None-Match", etag);
+		return client.send(request.GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+	}
+
+	private static Transaction transaction(long accountId, String reference) {
+		Transaction transaction = new Transaction(USER_ID, accountId, reference, Money.ofMinor(-1250), Date.valueOf("2024-05-01"));
+		transaction.setType("expense");
+		return transaction;
+	}
+}
@@ -0,0 +1,45 @@
+package com.elphie.accounts.libs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+// Cursors round trip any sort key and reject what encode did not build
+class CursorsTests {
+
+	@Test
+	void decodesWhatItEncodes() {
+		assertEquals(new Cursors.Cursor("2024-05-01", 42L), Cursors.decode(Cursors.encode("2024-05-01", 42L)));
+		assertEquals(new Cursors.Cursor("Savings: 2/3 é", 7L), Cursors.decode(Cursors.encode("Savings: 2/3 é", 7L)));
+		assertEquals(new Cursors.Cursor("", 1L), Cursors.decode(Cursors.encode("", 1L)));
+
+		// URL safe, no padding
+		String cursor = Cursors.encode("??>>~~", Long.MAX_VALUE);
+		assertFalse(cursor.contains("+") || cursor.contains("/") || cursor.contains("="));
+	}
+
+	@Test
+	void rejectsForeignCursors() {
+		assertThrows(IllegalArgumentException.class, () -> Cursors.decode("not base64!"));
+		assertThrows(IllegalArgumentException.class, () -> Cursors.decode(urlBase64("no separator")));
+		assertThrows(IllegalArgumentException.class, () -> Cursors.decode(urlBase64(":2024-05-01")));
+		assertThrows(IllegalArgumentException.class, () -> Cursors.decode(urlBase64("x:2024-05-01")));
+	}
+
+	@Test
+	void limitsThePageSize() {
+		assertFalse(Cursors.isValidLimit(0));
+		assertTrue(Cursors.isValidLimit(1));
+		assertTrue(Cursors.isValidLimit(Cursors.MAX_LIMIT));
+		assertFalse(Cursors.isValidLimit(Cursors.MAX_LIMIT + 1));
+	}
+
+	private static String urlBase64(String raw) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes());
+	}
+}
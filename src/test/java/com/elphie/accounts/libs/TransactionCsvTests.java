@@ -0,0 +1,76 @@
+package com.elphie.accounts.libs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.sql.Date;
+
+import org.junit.jupiter.api.Test;
+
+import com.elphie.accounts.definitions.Money;
+import com.elphie.accounts.models.Transaction;
+
+// Exported rows parse back to the same Transaction, quoted commas, quotes and line breaks included
+class TransactionCsvTests {
+
+	@Test
+	void parsesQuotedAndEmptyFields() {
+		Transaction transaction = TransactionCsv.parse("1, 2 ,\"Coffee, \"\"large\"\"\",-3.50,2024-05-01,");
+		assertEquals(1L, transaction.getUserId());
+		assertEquals(2L, transaction.getAccountId());
+		assertEquals("Coffee, \"large\"", transaction.getReference());
+		assertEquals(Money.parse("-3.50"), transaction.getAmount());
+		assertEquals(Date.valueOf("2024-05-01"), transaction.getDate());
+		assertNull(transaction.getType());
+
+		assertThrows(IllegalArgumentException.class, () -> TransactionCsv.parse("1,2,Coffee,-3.50,2024-05-01"));
+		assertThrows(IllegalArgumentException.class, () -> TransactionCsv.parse("1,2,\"Coffee,-3.50,2024-05-01,expense"));
+		assertThrows(IllegalArgumentException.class, () -> TransactionCsv.parse("1,2,Coffee,three,2024-05-01,expense"));
+	}
+
+	@Test
+	void formattedRecordsReadBackAcrossLineBreaks() throws Exception {
+		Transaction first = transaction("Rent\nMay, \"flat 2\"");
+		Transaction second = transaction("Groceries");
+
+		StringBuilder out = new StringBuilder(TransactionCsv.HEADER).append('\n');
+		TransactionCsv.format(first, out);
+		TransactionCsv.format(second, out);
+
+		BufferedReader reader = new BufferedReader(new StringReader(out.toString()));
+		assertEquals(TransactionCsv.HEADER, TransactionCsv.readRecord(reader));
+		assertSameFields(first, TransactionCsv.parse(TransactionCsv.readRecord(reader)));
+		assertSameFields(second, TransactionCsv.parse(TransactionCsv.readRecord(reader)));
+		assertNull(TransactionCsv.readRecord(reader));
+	}
+
+	@Test
+	void strayQuoteOnlySwallowsABoundedNumberOfLines() throws Exception {
+		StringBuilder input = new StringBuilder("1,2,\"Broken,-1,2024-05-01,expense\n");
+		for(int i = 0; i < 40; i++) input.append("1,2,Fine,-1,2024-05-01,expense\n");
+
+		BufferedReader reader = new BufferedReader(new StringReader(input.toString()));
+		String broken = TransactionCsv.readRecord(reader);
+		assertEquals(32, broken.split("\n").length);
+		assertThrows(IllegalArgumentException.class, () -> TransactionCsv.parse(broken));
+		assertEquals("Fine", TransactionCsv.parse(TransactionCsv.readRecord(reader)).getReference());
+	}
+
+	private static Transaction transaction(String reference) {
+		Transaction transaction = new Transaction(3L, 4L, reference, Money.parse("-850.25"), Date.valueOf("2024-05-01"));
+		transaction.setType("expense");
+		return transaction;
+	}
+
+	private static void assertSameFields(Transaction expected, Transaction actual) {
+		assertEquals(expected.getUserId(), actual.getUserId());
+		assertEquals(expected.getAccountId(), actual.getAccountId());
+		assertEquals(expected.getReference(), actual.getReference());
+		assertEquals(expected.getAmount(), actual.getAmount());
+		assertEquals(expected.getDate(), actual.getDate());
+		assertEquals(expected.getType(), actual.getType());
+	}
+}
@@ -0,0 +1,264 @@
+package com.elphie.accounts.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.elphie.accounts.definitions.Money;
+
+// End-to-end load test: seeds many Users with thousands of Transactions each, then drives the
+// HTTP endpoints at fixed concurrency levels and reports p50/p99 latency and requests/s.
+// Runs offline against a private in-memory H2 in PostgreSQL mode, only with the load-test profile:
+//   mvn -Pload-test test [-Dload.users=50 -Dload.transactions=2000 -Dload.concurrency=1,8,32
+//                         -Dload.requests=2000 -Dload.max-p99-ms=0]
+// The report is printed and written to target/load-report.csv. With load.max-p99-ms > 0 any
+// scenario above it fails the build.
+@Tag("load")
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+	"spring.datasource.url=jdbc:h2:mem:elphie_load_db;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;LOCK_TIMEOUT=10000",
+	"spring.datasource.hikari.maximum-pool-size=32",
+	"spring.jpa.show-sql=false"
+})
+class LoadTests {
+
+	private static final int USERS = Integer.getInteger("load.users", 50);
+	private static final int ACCOUNTS_PER_USER = 3;
+	private static final int TRANSACTIONS_PER_USER = Integer.getInteger("load.transactions", 2000);
+	private static final int[] CONCURRENCY = Arrays.stream(System.getProperty("load.concurrency", "1,8,32").split(","))
+		.mapToInt(level -> Integer.parseInt(level.trim())).toArray();
+	private static final int REQUESTS = Integer.getInteger("load.requests", 2000);
+	private static final long MAX_P99_MS = Long.getLong("load.max-p99-ms", 0L);
+
+	private static final long FIRST_USER_ID = 100_000L;
+	private static final LocalDate LAST_DAY = LocalDate.of(2024, 12, 31);
+	private static final int DAYS = 365;
+	private static final String[] REFERENCES = {
+		"CARD PAYMENT TO TESCO STORES", "DIRECT DEBIT ELECTRIC IRELAND", "SEPA TRANSFER RENT",
+		"CARD PAYMENT TO SPOTIFY", "SALARY MONKEYMINDS LTD", "ATM WITHDRAWAL", "CARD PAYMENT TO AMAZON EU"
+	};
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private long[] accountIds;
+	private long[] transactionIds;
+
+	private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+	@Test
+	void endpointsUnderLoad() throws Exception {
+		seed();
+
+		List<Scenario> scenarios = List.of(
+			new Scenario("GET /accounts/get?id", random -> get("/accounts/get?id=" + randomAccount(random))),
+			new Scenario("GET /accounts/get?userId&query", random -> get("/accounts/get?userId=" + randomUser(random) + "&query=Account")),
+			new Scenario("GET /transactions/get?id", random -> get("/transactions/get?id=" + transactionIds[random.nextInt(transactionIds.length)])),
+			new Scenario("GET /transactions/get?userId&start&end&limit", random -> get("/transactions/get?userId=" + randomUser(random) + "&start=2024-01-01&end=2024-12-31&limit=50")),
+			new Scenario("GET /transactions/daily", random -> get("/transactions/daily?userId=" + randomUser(random) + "&start=2024-06-01&end=2024-06-30")),
+			new Scenario("POST /transactions/create", random -> post("/transactions/create", transactionJson(random)))
+		);
+
+		List<Result> results = new ArrayList<>();
+		for(Scenario scenario : scenarios) {
+			for(int concurrency : CONCURRENCY) {
+				// Warm up JIT, pools and caches before each measured run
+				drive(scenario, concurrency, Math.max(REQUESTS / 10, concurrency));
+				results.add(drive(scenario, concurrency, REQUESTS));
+			}
+		}
+
+		report(results);
+
+		for(Result result : results) {
+			assertEquals(0, result.errors(), result.scenario() + " x" + result.concurrency() + " had failed requests");
+			if(MAX_P99_MS > 0) {
+				assertTrue(result.p99Millis() <= MAX_P99_MS, result.scenario() + " x" + result.concurrency() + " p99 " + result.p99Millis() + " ms > " + MAX_P99_MS + " ms");
+			}
+		}
+	}
+
+	// Data set --------------------------------------------------------------
+
+	private void seed() {
+		Random random = new Random(42);
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+
+		// Accounts
+		List<Object[]> accounts = new ArrayList<>();
+		for(int user = 0; user < USERS; user++) {
+			for(int account = 0; account < ACCOUNTS_PER_USER; account++) {
+				accounts.add(new Object[] { FIRST_USER_ID + user, "Account " + account, account == 0 ? "current" : "savings", "IE00LOAD" + user + "X" + account, now, now });
+			}
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO accounts (user_id, name, type, iban, balance, created_on, updated_on) VALUES (?, ?, ?, ?, 0, ?, ?)", accounts);
+		accountIds = jdbcTemplate.queryForList("SELECT id FROM accounts WHERE user_id >= ? ORDER BY user_id, id", Long.class, FIRST_USER_ID)
+			.stream().mapToLong(Long::longValue).toArray();
+
+		// Transactions, ids from the entity sequence so later inserts through Hibernate do not collide
+		List<Object[]> transactions = new ArrayList<>();
+		for(int user = 0; user < USERS; user++) {
+			for(int i = 0; i < TRANSACTIONS_PER_USER; i++) {
+				long accountId = accountIds[user * ACCOUNTS_PER_USER + random.nextInt(ACCOUNTS_PER_USER)];
+				transactions.add(new Object[] {
+					FIRST_USER_ID + user, accountId, REFERENCES[random.nextInt(REFERENCES.length)] + " " + i,
+					(long) random.nextInt(50_000), Date.valueOf(LAST_DAY.minusDays(random.nextInt(DAYS))),
+					random.nextInt(5) == 0 ? "income" : "expense", now, now
+				});
+				if(transactions.size() == 1000) {
+					insertTransactions(transactions);
+				}
+			}
+		}
+		insertTransactions(transactions);
+		transactionIds = jdbcTemplate.queryForList("SELECT id FROM transactions WHERE user_id >= ?", Long.class, FIRST_USER_ID)
+			.stream().mapToLong(Long::longValue).toArray();
+
+		// Balances and rollup as the write paths would have left them
+		jdbcTemplate.update("UPDATE accounts a SET balance = (SELECT COALESCE(SUM(t.amount), 0) FROM transactions t WHERE t.account_id = a.id) WHERE a.user_id >= ?", FIRST_USER_ID);
+		jdbcTemplate.update("INSERT INTO daily_totals (user_id, account_id, date, type, total, tx_count) SELECT user_id, account_id, date, type, SUM(amount), COUNT(*) FROM transactions WHERE user_id >= ? GROUP BY user_id, account_id, date, type", FIRST_USER_ID);
+	}
+
+	private void insertTransactions(List<Object[]> transactions) {
+		jdbcTemplate.batchUpdate("INSERT INTO transactions (id, user_id, account_id, reference, amount, date, type, created_on, updated_on) VALUES (nextval('transactions_seq'), ?, ?, ?, ?, ?, ?, ?, ?)", transactions);
+		transactions.clear();
+	}
+
+	private long randomUser(ThreadLocalRandom random) {
+		return FIRST_USER_ID + random.nextInt(USERS);
+	}
+
+	private long randomAccount(ThreadLocalRandom random) {
+		return accountIds[random.nextInt(accountIds.length)];
+	}
+
+	private String transactionJson(ThreadLocalRandom random) {
+		int user = random.nextInt(USERS);
+		long accountId = accountIds[user * ACCOUNTS_PER_USER + random.nextInt(ACCOUNTS_PER_USER)];
+		return "{\"userId\":" + (FIRST_USER_ID + user) + ",\"accountId\":" + accountId
+			+ ",\"reference\":\"" + REFERENCES[random.nextInt(REFERENCES.length)] + "\""
+			+ ",\"amount\":" + Money.ofMinor(random.nextInt(50_000))
+			+ ",\"date\":\"" + LAST_DAY.minusDays(random.nextInt(DAYS)) + "\",\"type\":\"expense\"}";
+	}
+
+	// Driver ----------------------------------------------------------------
+
+	private HttpRequest get(String path) {
+		return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+	}
+
+	private HttpRequest post(String path, String json) {
+		return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+			.header("Content-Type", "application/json")
+			.POST(HttpRequest.BodyPublishers.ofString(json))
+			.build();
+	}
+
+	// Sends requests from concurrency threads in closed loop, each thread records its own latencies
+	private Result drive(Scenario scenario, int concurrency, int requests) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicLong errors = new AtomicLong();
+		List<Future<long[]>> workers = new ArrayList<>();
+
+		for(int worker = 0; worker < concurrency; worker++) {
+			int share = requests / concurrency + (worker < requests % concurrency ? 1 : 0);
+			workers.add(pool.submit(() -> {
+				long[] latencies = new long[share];
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				start.await();
+				for(int i = 0; i < share; i++) {
+					HttpRequest request = scenario.request().apply(random);
+					long begin = System.nanoTime();
+					try {
+						HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+						if(response.statusCode() >= 300) errors.incrementAndGet();
+					} catch (IOException error) {
+						errors.incrementAndGet();
+					}
+					latencies[i] = System.nanoTime() - begin;
+				}
+				return latencies;
+			}));
+		}
+
+		long begin = System.nanoTime();
+		start.countDown();
+		long[] latencies = new long[0];
+		for(Future<long[]> worker : workers) {
+			long[] part = worker.get();
+			long[] merged = Arrays.copyOf(latencies, latencies.length + part.length);
+			System.arraycopy(part, 0, merged, latencies.length, part.length);
+			latencies = merged;
+		}
+		long elapsed = System.nanoTime() - begin;
+		pool.shutdown();
+
+		Arrays.sort(latencies);
+		return new Result(
+			scenario.name(), concurrency, latencies.length, errors.get(),
+			percentile(latencies, 50), percentile(latencies, 99), latencies.length * 1e9 / elapsed
+		);
+	}
+
+	private static double percentile(long[] sorted, int percentile) {
+		int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+		return sorted[Math.max(index, 0)] / 1e6;
+	}
+
+	private void report(List<Result> results) throws IOException {
+		Path file = Path.of("target", "load-report.csv");
+		Files.createDirectories(file.getParent());
+		try(PrintWriter csv = new PrintWriter(Files.newBufferedWriter(file))) {
+			csv.println("scenario,concurrency,requests,errors,p50_ms,p99_ms,requests_per_second");
+			for(Result result : results) {
+				csv.printf("%s,%d,%d,%d,%.3f,%.3f,%.1f%n", result.scenario(), result.concurrency(), result.requests(),
+					result.errors(), result.p50Millis(), result.p99Millis(), result.requestsPerSecond());
+			}
+		}
+
+		StringBuilder table = new StringBuilder(String.format("%nLoad test: %d users x %d transactions%n%-48s %5s %8s %7s %9s %9s %10s%n",
+			USERS, TRANSACTIONS_PER_USER, "scenario", "conc", "requests", "errors", "p50 ms", "p99 ms", "req/s"));
+		for(Result result : results) {
+			table.append(String.format("%-48s %5d %8d %7d %9.3f %9.3f %10.1f%n", result.scenario(), result.concurrency(),
+				result.requests(), result.errors(), result.p50Millis(), result.p99Millis(), result.requestsPerSecond()));
+		}
+		System.out.println(table);
+	}
+
+	private record Scenario(String name, Function<ThreadLocalRandom, HttpRequest> request) {}
+
+	private record Result(String scenario, int concurrency, int requests, long errors, double p50Millis, double p99Millis, double requestsPerSecond) {}
+}
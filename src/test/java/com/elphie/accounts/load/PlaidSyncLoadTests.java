@@ -0,0 +1,130 @@
+package com.elphie.accounts.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.elphie.accounts.definitions.SyncReport;
+import com.elphie.accounts.plaid.PlaidStubServer;
+import com.elphie.accounts.services.PlaidSyncService;
+
+// Plaid sync throughput: links thousands of Accounts to the local Plaid stub, then times a first full
+// sync and an incremental sync with nothing new. Offline, private in-memory H2, only with the load-test profile:
+//   mvn -Pload-test test -Dtest=PlaidSyncLoadTests [-Dload.plaid.accounts=2000 -Dload.plaid.transactions=100
+//                                                  -Dload.plaid.latency-ms=20 -Dload.plaid.workers=16]
+// The report is printed and appended to target/plaid-sync-report.csv.
+@Tag("load")
+@SpringBootTest(properties = {
+	"spring.datasource.url=jdbc:h2:mem:elphie_plaid_load_db;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;LOCK_TIMEOUT=10000",
+	"spring.datasource.hikari.maximum-pool-size=32",
+	"spring.jpa.show-sql=false",
+	"elphie.slow-query.enabled=false"
+})
+class PlaidSyncLoadTests {
+
+	private static final int ACCOUNTS = Integer.getInteger("load.plaid.accounts", 2000);
+	private static final int TRANSACTIONS_PER_ACCOUNT = Integer.getInteger("load.plaid.transactions", 100);
+	private static final long LATENCY_MS = Long.getLong("load.plaid.latency-ms", 20L);
+	private static final int WORKERS = Integer.getInteger("load.plaid.workers", 16);
+
+	private static final long FIRST_USER_ID = 200_000L;
+
+	private static final PlaidStubServer stub = start();
+
+	@Autowired
+	private PlaidSyncService plaidSyncService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@DynamicPropertySource
+	static void plaid(DynamicPropertyRegistry registry) {
+		registry.add("elphie.plaid.base-url", stub::url);
+		registry.add("elphie.plaid.client-id", () -> PlaidStubServer.CLIENT_ID);
+		registry.add("elphie.plaid.secret", () -> PlaidStubServer.SECRET);
+		registry.add("elphie.plaid.sync.workers", () -> WORKERS);
+	}
+
+	@AfterAll
+	static void stop() {
+		stub.close();
+	}
+
+	@Test
+	void syncThroughput() throws Exception {
+		seed();
+
+		SyncReport full = plaidSyncService.syncAll();
+		SyncReport incremental = plaidSyncService.syncAll();
+
+		report(List.of(new Run("full", full), new Run("incremental", incremental)));
+
+		assertEquals(0, full.getFailedAccounts(), "failed Accounts: " + full.getErrors());
+		assertEquals((long) ACCOUNTS * TRANSACTIONS_PER_ACCOUNT, full.getAdded());
+		assertEquals(0, incremental.getAdded() + incremental.getModified() + incremental.getRemoved());
+		assertEquals((long) ACCOUNTS * TRANSACTIONS_PER_ACCOUNT, jdbcTemplate.queryForObject(
+			"SELECT COUNT(*) FROM transactions WHERE user_id >= ?", Long.class, FIRST_USER_ID));
+	}
+
+	private void seed() {
+		Timestamp now = new Timestamp(System.currentTimeMillis());
+		List<Object[]> accounts = new ArrayList<>();
+		for(int account = 0; account < ACCOUNTS; account++) {
+			accounts.add(new Object[] { FIRST_USER_ID + account / 3, "Plaid " + account, "current", "IE00PLAID" + account, "plaid-" + account, "access-sandbox-" + account, now });
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO accounts (user_id, name, type, iban, balance, plaid_id, plaid_access_token, created_on) VALUES (?, ?, ?, ?, 0, ?, ?, ?)", accounts);
+	}
+
+	private void report(List<Run> runs) throws IOException {
+		Path file = Path.of("target", "plaid-sync-report.csv");
+		Files.createDirectories(file.getParent());
+		boolean header = !Files.exists(file);
+		try(PrintWriter csv = new PrintWriter(Files.newBufferedWriter(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+			if(header) csv.println("run,accounts,transactions_per_account,latency_ms,workers,failed,pages,added,millis,accounts_per_second,transactions_per_second");
+			for(Run run : runs) {
+				SyncReport result = run.report();
+				csv.printf("%s,%d,%d,%d,%d,%d,%d,%d,%d,%.1f,%.1f%n", run.name(), ACCOUNTS, TRANSACTIONS_PER_ACCOUNT, LATENCY_MS, WORKERS,
+					result.getFailedAccounts(), result.getPages(), result.getAdded(), result.getMillis(), perSecond(result.getAccounts(), result), perSecond(result.getAdded(), result));
+			}
+		}
+
+		StringBuilder table = new StringBuilder(String.format("%nPlaid sync: %d accounts x %d transactions, %d ms stub latency, %d workers%n%-12s %8s %8s %10s %10s %12s %14s%n",
+			ACCOUNTS, TRANSACTIONS_PER_ACCOUNT, LATENCY_MS, WORKERS, "run", "failed", "pages", "added", "ms", "accounts/s", "transactions/s"));
+		for(Run run : runs) {
+			SyncReport result = run.report();
+			table.append(String.format("%-12s %8d %8d %10d %10d %12.1f %14.1f%n", run.name(), result.getFailedAccounts(), result.getPages(),
+				result.getAdded(), result.getMillis(), perSecond(result.getAccounts(), result), perSecond(result.getAdded(), result)));
+		}
+		System.out.println(table);
+	}
+
+	private static double perSecond(long count, SyncReport report) {
+		return count * 1000.0 / Math.max(report.getMillis(), 1);
+	}
+
+	private static PlaidStubServer start() {
+		try {
+			return new PlaidStubServer(TRANSACTIONS_PER_ACCOUNT, LATENCY_MS, 64);
+		} catch (IOException error) {
+			throw new IllegalStateException(error);
+		}
+	}
+
+	private record Run(String name, SyncReport report) {}
+}
@@ -0,0 +1,197 @@
+package com.elphie.accounts.plaid;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+// Local stand-in of the Plaid /transactions/sync API for offline tests, on the JDK HttpServer.
+// Every account_id has an append-only log of changes and a cursor is a position in that log ("c<position>").
+// The log starts with `initial` added Transactions generated on first use, modify / remove append to it.
+// latencyMillis is slept on every call to mimic the network round trip.
+public class PlaidStubServer implements AutoCloseable {
+
+	public static final String CLIENT_ID = "stub-client";
+	public static final String SECRET = "stub-secret";
+
+	private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+	// Headers and body go out as two writes, without TCP_NODELAY every call waits out the client's delayed ACK (~40 ms)
+	static {
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+	}
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final int initial;
+	private final long latencyMillis;
+	private final Map<String, List<Change>> logs = new ConcurrentHashMap<>();
+	private final Set<String> mutations = ConcurrentHashMap.newKeySet();
+	private final AtomicLong requests = new AtomicLong();
+
+	public PlaidStubServer(int initial, long latencyMillis, int threads) throws IOException {
+		this.initial = initial;
+		this.latencyMillis = latencyMillis;
+		this.executor = Executors.newFixedThreadPool(threads);
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.createContext("/transactions/sync", this::sync);
+		this.server.setExecutor(executor);
+		this.server.start();
+	}
+
+	public String url() {
+		return "http://localhost:" + server.getAddress().getPort();
+	}
+
+	public long requests() {
+		return requests.get();
+	}
+
+	// transaction_id of the index-th generated Transaction of an account
+	public static String transactionId(String accountId, int index) {
+		return accountId + "-" + index;
+	}
+
+	// Plaid amount of the index-th generated Transaction, positive is money out
+	public static BigDecimal amount(int index) {
+		return BigDecimal.valueOf((index * 7919L) % 20_000 - 5_000, 2);
+	}
+
+	public void modify(String accountId, int index, BigDecimal amount) {
+		log(accountId).add(new Change("modified", transaction(accountId, index, amount)));
+	}
+
+	public void remove(String accountId, int index) {
+		Map<String, Object> removed = new LinkedHashMap<>();
+		removed.put("transaction_id", transactionId(accountId, index));
+		removed.put("account_id", accountId);
+		log(accountId).add(new Change("removed", removed));
+	}
+
+	// The next call of the account after its first page answers TRANSACTIONS_SYNC_MUTATION_DURING_PAGINATION
+	public void failNextPagination(String accountId) {
+		mutations.add(accountId);
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	// Handler ---------------------------------------------------------------
+
+	private void sync(HttpExchange exchange) throws IOException {
+		requests.incrementAndGet();
+		try {
+			if(latencyMillis > 0) Thread.sleep(latencyMillis);
+
+			JsonNode request = mapper.readTree(exchange.getRequestBody());
+			if(!CLIENT_ID.equals(request.path("client_id").asText()) || !SECRET.equals(request.path("secret").asText())) {
+				error(exchange, "INVALID_INPUT", "INVALID_API_KEYS", "invalid client_id or secret provided");
+				return;
+			}
+
+			String accountId = request.path("options").path("account_id").asText(null);
+			if(accountId == null || request.path("access_token").asText("").isEmpty()) {
+				error(exchange, "INVALID_REQUEST", "MISSING_FIELDS", "access_token and options.account_id are required");
+				return;
+			}
+
+			String cursor = request.path("cursor").asText("");
+			int count = request.path("count").asInt(100);
+			int position = cursor.isEmpty() ? 0 : Integer.parseInt(cursor.substring(1));
+
+			if(position > 0 && mutations.remove(accountId)) {
+				error(exchange, "TRANSACTIONS_ERROR", "TRANSACTIONS_SYNC_MUTATION_DURING_PAGINATION", "underlying transaction data changed since last page was fetched");
+				return;
+			}
+
+			List<Change> log = log(accountId);
+			List<Object> added = new ArrayList<>();
+			List<Object> modified = new ArrayList<>();
+			List<Object> removed = new ArrayList<>();
+			int end;
+			synchronized(log) {
+				end = Math.min(log.size(), position + count);
+				for(Change change : log.subList(position, end)) {
+					switch(change.kind()) {
+						case "added" -> added.add(change.body());
+						case "modified" -> modified.add(change.body());
+						default -> removed.add(change.body());
+					}
+				}
+				Map<String, Object> page = new LinkedHashMap<>();
+				page.put("added", added);
+				page.put("modified", modified);
+				page.put("removed", removed);
+				page.put("next_cursor", "c" + end);
+				page.put("has_more", end < log.size());
+				page.put("request_id", "stub-" + requests.get());
+				respond(exchange, 200, page);
+			}
+		} catch (InterruptedException error) {
+			Thread.currentThread().interrupt();
+		} catch (RuntimeException error) {
+			error(exchange, "API_ERROR", "INTERNAL_SERVER_ERROR", String.valueOf(error.getMessage()));
+		}
+	}
+
+	private List<Change> log(String accountId) {
+		return logs.computeIfAbsent(accountId, id -> {
+			List<Change> log = Collections.synchronizedList(new ArrayList<>());
+			for(int i = 0; i < initial; i++) log.add(new Change("added", transaction(id, i, amount(i))));
+			return log;
+		});
+	}
+
+	private static Map<String, Object> transaction(String accountId, int index, BigDecimal amount) {
+		Map<String, Object> transaction = new LinkedHashMap<>();
+		transaction.put("transaction_id", transactionId(accountId, index));
+		transaction.put("account_id", accountId);
+		transaction.put("amount", amount);
+		transaction.put("iso_currency_code", "EUR");
+		transaction.put("date", FIRST_DAY.plusDays(index % 365).toString());
+		transaction.put("name", "STUB MERCHANT " + (index % 50));
+		transaction.put("pending", false);
+		return transaction;
+	}
+
+	private void error(HttpExchange exchange, String type, String code, String message) throws IOException {
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("error_type", type);
+		body.put("error_code", code);
+		body.put("error_message", message);
+		body.put("display_message", null);
+		respond(exchange, 400, body);
+	}
+
+	private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+		byte[] bytes = mapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try(OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	private record Change(String kind, Map<String, Object> body) {}
+}
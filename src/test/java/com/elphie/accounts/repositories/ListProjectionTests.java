@@ -0,0 +1,76 @@
+package com.elphie.accounts.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Date;
+import java.util.List;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.elphie.accounts.definitions.AccountView;
+import com.elphie.accounts.definitions.Money;
+import com.elphie.accounts.definitions.TransactionView;
+import com.elphie.accounts.models.Account;
+import com.elphie.accounts.models.Transaction;
+import com.elphie.accounts.services.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+// The list endpoints answer with the same JSON as before from records that never become managed entities
+@SpringBootTest
+class ListProjectionTests {
+
+	private static final long USER_ID = 9500L;
+
+	@Autowired
+	private IAccountRepository accountRepository;
+
+	@Autowired
+	private ITransactionRepository transactionRepository;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void viewsMatchTheEntitiesAndStayOutOfThePersistenceContext() throws Exception {
+		Account account = accountRepository.save(new Account(USER_ID, "Projected", "current", "IE00VIEW", Money.ZERO));
+		Transaction transaction = new Transaction(USER_ID, account.getId(), "GROCERIES 50%_OFF", Money.ofMinor(-4599), Date.valueOf("2024-03-02"));
+		transaction.setType("expense");
+		transactionService.createAll(List.of(transaction));
+
+		List<AccountView> accounts = accountRepository.findByUserIdAndNameContaining(USER_ID, "Project");
+		assertEquals(1, accounts.size());
+		assertEquals(json(accountRepository.findById(account.getId()).get()), json(accounts.get(0)));
+
+		// Wildcards in the query are still matched literally
+		List<TransactionView> transactions = transactionRepository.findByUserIdAndReferenceContaining(USER_ID, "50%_");
+		assertEquals(1, transactions.size());
+		assertEquals(json(transactionRepository.findById(transactions.get(0).id()).get()), json(transactions.get(0)));
+		assertEquals(0, transactionRepository.findByUserIdAndReferenceContaining(USER_ID, "5_%").size());
+
+		int managed = new TransactionTemplate(transactionManager).execute(status -> {
+			transactionRepository.findByUserIdAndDateBetween(USER_ID, Date.valueOf("2024-01-01"), Date.valueOf("2024-12-31"));
+			return entityManager.unwrap(SessionImplementor.class).getPersistenceContextInternal().getNumberOfManagedEntities();
+		});
+		assertEquals(0, managed);
+	}
+
+	private String json(Object value) throws Exception {
+		return objectMapper.writeValueAsString(value);
+	}
+}
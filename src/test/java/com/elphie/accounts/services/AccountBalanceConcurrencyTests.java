@@ -0,0 +1,192 @@
+package com.elphie.accounts.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.elphie.accounts.definitions.Money;
+import com.elphie.accounts.definitions.TransactionRequest;
+import com.elphie.accounts.models.Account;
+import com.elphie.accounts.models.Transaction;
+import com.elphie.accounts.repositories.IAccountRepository;
+
+// Many threads post, edit and delete Transactions of the same Account at once,
+// the ledger must end up with exactly the sum of the surviving amounts.
+@SpringBootTest
+class AccountBalanceConcurrencyTests {
+
+	private static final long USER_ID = 9001L;
+	private static final int THREADS = 8;
+	private static final int TRANSACTIONS_PER_THREAD = 100;
+	private static final String[] DATES = { "2024-03-01", "2024-03-02", "2024-03-03" };
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private IAccountRepository accountRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void concurrentWritesDoNotLoseBalanceUpdates() throws Exception {
+		Account account = accountRepository.save(new Account(USER_ID, "Stress", "current", "IE00STRESS", Money.ZERO));
+		long accountId = account.getId();
+
+		// Expected balance in minor units (cents)
+		AtomicLong expectedCents = new AtomicLong();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> workers = new ArrayList<>();
+
+		for(int t = 0; t < THREADS; t++) {
+			final int thread = t;
+			workers.add(pool.submit(() -> {
+				start.await();
+				for(int i = 0; i < TRANSACTIONS_PER_THREAD; i++) {
+					long cents = ((i % 8) + 1) * 25;
+					String date = DATES[(thread + i) % DATES.length];
+					Transaction transaction = new Transaction(USER_ID, accountId, "t" + thread + "-" + i, Money.ofMinor(cents), java.sql.Date.valueOf(date));
+					transaction.setType(i % 2 == 0 ? "expense" : "income");
+					Transaction created = transactionService.create(transaction);
+					expectedCents.addAndGet(cents);
+
+					if(i % 5 == 0) {
+						// Delete
+						transactionService.delete(created.getId());
+						expectedCents.addAndGet(-cents);
+					} else if(i % 4 == 0) {
+						// Update amount and move to another day
+						TransactionRequest request = new TransactionRequest();
+						request.setAccountId(String.valueOf(accountId));
+						request.setReference(created.getReference());
+						request.setAmount("3.0");
+						request.setDate(DATES[(thread + i + 1) % DATES.length]);
+						request.setType(created.getType());
+						transactionService.update(created.getId(), request);
+						expectedCents.addAndGet(300 - cents);
+					}
+				}
+				return null;
+			}));
+		}
+
+		start.countDown();
+		for(Future<?> worker : workers) worker.get(2, TimeUnit.MINUTES);
+		pool.shutdown();
+
+		Long expected = expectedCents.get();
+		Long balance = jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", Long.class, accountId);
+		Long transactionsSum = jdbcTemplate.queryForObject("SELECT SUM(amount) FROM transactions WHERE account_id = ?", Long.class, accountId);
+		Long rollupSum = jdbcTemplate.queryForObject("SELECT SUM(total) FROM daily_totals WHERE account_id = ?", Long.class, accountId);
+		Long rollupCount = jdbcTemplate.queryForObject("SELECT SUM(tx_count) FROM daily_totals WHERE account_id = ?", Long.class, accountId);
+		Long transactionsCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE account_id = ?", Long.class, accountId);
+
+		assertEquals(expected, balance);
+		assertEquals(expected, transactionsSum);
+		assertEquals(expected, rollupSum);
+		assertEquals(transactionsCount, rollupCount);
+	}
+
+	@Test
+	void racingWritesOfOneTransactionKeepTheBalanceInStep() throws Exception {
+		long userId = USER_ID + 2;
+		long accountId = accountRepository.save(new Account(userId, "Racing", "current", "IE00RACE", Money.ZERO)).getId();
+
+		for(int round = 0; round < 20; round++) {
+			Transaction transaction = new Transaction(userId, accountId, "r" + round, Money.ofMinor(100), java.sql.Date.valueOf(DATES[0]));
+			transaction.setType("expense");
+			long id = transactionService.create(transaction).getId();
+			boolean deletes = round % 2 == 0;
+
+			// PUTs and PATCHes to other amounts / days, on even rounds a DELETE races them
+			CountDownLatch go = new CountDownLatch(1);
+			ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+			List<Future<?>> workers = new ArrayList<>();
+			for(int t = 0; t < THREADS; t++) {
+				final int thread = t;
+				workers.add(pool.submit(() -> {
+					go.await();
+					TransactionRequest request = new TransactionRequest();
+					request.setAmount(String.valueOf(thread + 2));
+					request.setDate(DATES[thread % DATES.length]);
+					request.setType(thread % 2 == 0 ? "expense" : "income");
+					if(deletes && thread == 0) {
+						transactionService.delete(id);
+					} else if(thread % 3 == 0) {
+						transactionService.patch(id, request);
+					} else {
+						request.setAccountId(String.valueOf(accountId));
+						request.setReference("updated");
+						transactionService.update(id, request);
+					}
+					return null;
+				}));
+			}
+			go.countDown();
+			for(Future<?> worker : workers) worker.get(1, TimeUnit.MINUTES);
+			pool.shutdown();
+		}
+
+		Long balance = jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", Long.class, accountId);
+		Long transactionsSum = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE account_id = ?", Long.class, accountId);
+		assertEquals(transactionsSum, balance);
+
+		// Every (day, type) of the rollup holds exactly its Transactions
+		List<String> rollup = jdbcTemplate.queryForList(
+			"SELECT date || ' ' || type || ' ' || total || ' ' || tx_count FROM daily_totals WHERE account_id = ? AND tx_count <> 0 ORDER BY 1", String.class, accountId);
+		List<String> grouped = jdbcTemplate.queryForList(
+			"SELECT date || ' ' || type || ' ' || SUM(amount) || ' ' || COUNT(*) FROM transactions WHERE account_id = ? GROUP BY date, type ORDER BY 1", String.class, accountId);
+		assertEquals(grouped, rollup);
+	}
+
+	@Test
+	void bulkDeletesRacingCreatesKeepTheBalanceInStep() throws Exception {
+		long userId = USER_ID + 1;
+		long accountId = accountRepository.save(new Account(userId, "Bulk", "current", "IE00BULK", Money.ZERO)).getId();
+		java.sql.Date start = java.sql.Date.valueOf("2024-04-01");
+		java.sql.Date end = java.sql.Date.valueOf("2024-04-02");
+
+		CountDownLatch go = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> workers = new ArrayList<>();
+		for(int t = 0; t < THREADS - 1; t++) {
+			final int thread = t;
+			workers.add(pool.submit(() -> {
+				go.await();
+				for(int i = 0; i < TRANSACTIONS_PER_THREAD / 2; i++) {
+					Transaction transaction = new Transaction(userId, accountId, "b" + thread + "-" + i, Money.ofMinor(100 + i), java.sql.Date.valueOf(i % 2 == 0 ? "2024-04-01" : "2024-04-03"));
+					transaction.setType("expense");
+					transactionService.create(transaction);
+				}
+				return null;
+			}));
+		}
+		workers.add(pool.submit(() -> {
+			go.await();
+			for(int i = 0; i < 20; i++) transactionService.deleteByFilter(userId, i % 2 == 0 ? null : accountId, start, end);
+			return null;
+		}));
+
+		go.countDown();
+		for(Future<?> worker : workers) worker.get(2, TimeUnit.MINUTES);
+		pool.shutdown();
+
+		Long balance = jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", Long.class, accountId);
+		Long transactionsSum = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE account_id = ?", Long.class, accountId);
+		assertEquals(transactionsSum, balance);
+	}
+}
@@ -0,0 +1,130 @@
+package com.elphie.accounts.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.elphie.accounts.definitions.Money;
+import com.elphie.accounts.definitions.SyncReport;
+import com.elphie.accounts.models.Account;
+import com.elphie.accounts.plaid.PlaidStubServer;
+import com.elphie.accounts.repositories.IAccountRepository;
+import com.elphie.accounts.services.PlaidSyncService.AccountNotLinkedException;
+
+// Syncs linked Accounts against the local Plaid stub, small pages force several round trips per Account.
+// Balances and daily totals must always equal what the synced Transactions add up to.
+@SpringBootTest(properties = "elphie.plaid.sync.page-size=7")
+class PlaidSyncServiceTests {
+
+	private static final long USER_ID = 9100L;
+	private static final int INITIAL = 20;
+
+	private static final PlaidStubServer stub = start();
+
+	@Autowired
+	private PlaidSyncService plaidSyncService;
+
+	@Autowired
+	private IAccountRepository accountRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@DynamicPropertySource
+	static void plaid(DynamicPropertyRegistry registry) {
+		registry.add("elphie.plaid.base-url", stub::url);
+		registry.add("elphie.plaid.client-id", () -> PlaidStubServer.CLIENT_ID);
+		registry.add("elphie.plaid.secret", () -> PlaidStubServer.SECRET);
+	}
+
+	@AfterAll
+	static void stop() {
+		stub.close();
+	}
+
+	@Test
+	void syncIsIncrementalAndIdempotent() throws Exception {
+		long first = link("plaid-a");
+		long second = link("plaid-b");
+
+		// First sync pulls every Transaction
+		SyncReport report = plaidSyncService.syncAll();
+		assertEquals(0, report.getFailedAccounts());
+		assertEquals(2 * INITIAL, report.getAdded());
+		assertLedger(first, INITIAL);
+		assertLedger(second, INITIAL);
+
+		// Nothing changed, nothing written
+		report = plaidSyncService.syncAll();
+		assertEquals(0, report.getAdded() + report.getModified() + report.getRemoved());
+
+		// Only the changes after the stored cursor come back
+		stub.modify("plaid-a", 3, new BigDecimal("99.99"));
+		stub.remove("plaid-b", 5);
+		report = plaidSyncService.syncAll();
+		assertEquals(0, report.getAdded());
+		assertEquals(1, report.getModified());
+		assertEquals(1, report.getRemoved());
+		assertLedger(first, INITIAL);
+		assertLedger(second, INITIAL - 1);
+		assertEquals(-9999L, jdbcTemplate.queryForObject(
+			"SELECT amount FROM transactions WHERE account_id = ? AND external_id = ?", Long.class, first, PlaidStubServer.transactionId("plaid-a", 3)));
+	}
+
+	@Test
+	void restartedPaginationDoesNotDuplicateTransactions() {
+		long accountId = link("plaid-c");
+		stub.failNextPagination("plaid-c");
+
+		SyncReport report = plaidSyncService.syncAccount(accountId);
+		assertEquals(1, report.getRestarts());
+		assertLedger(accountId, INITIAL);
+	}
+
+	@Test
+	void badPlaidDataIsNotReportedAsAMissingAccount() {
+		long accountId = link("plaid-d");
+		stub.modify("plaid-d", 2, new BigDecimal("1e30"));
+
+		try {
+			assertThrows(IllegalArgumentException.class, () -> plaidSyncService.syncAccount(accountId));
+			assertThrows(AccountNotLinkedException.class, () -> plaidSyncService.syncAccount(-1L));
+		} finally {
+			// Out of the syncAll runs of the other tests
+			jdbcTemplate.update("UPDATE accounts SET plaid_id = NULL WHERE id = ?", accountId);
+		}
+	}
+
+	// Helpers ---------------------------------------------------------------
+
+	private static PlaidStubServer start() {
+		try {
+			return new PlaidStubServer(INITIAL, 0, 4);
+		} catch (Exception error) {
+			throw new IllegalStateException(error);
+		}
+	}
+
+	private long link(String plaidId) {
+		Account account = new Account(USER_ID, plaidId, "current", "IE00" + plaidId, Money.ZERO);
+		account.setPlaidId(plaidId);
+		account.setPlaidAccessToken("access-sandbox-" + plaidId);
+		return accountRepository.save(account).getId();
+	}
+
+	private void assertLedger(long accountId, int count) {
+		assertEquals(count, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE account_id = ?", Integer.class, accountId));
+		Long sum = jdbcTemplate.queryForObject("SELECT COALESCE(SUM(amount), 0) FROM transactions WHERE account_id = ?", Long.class, accountId);
+		assertEquals(sum, jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", Long.class, accountId));
+		assertEquals(sum, jdbcTemplate.queryForObject("SELECT COALESCE(SUM(total), 0) FROM daily_totals WHERE account_id = ?", Long.class, accountId));
+	}
+}
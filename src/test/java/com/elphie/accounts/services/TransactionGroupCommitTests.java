@@ -0,0 +1,91 @@
+package com.elphie.accounts.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.elphie.accounts.definitions.Money;
+import com.elphie.accounts.models.Account;
+import com.elphie.accounts.models.Transaction;
+import com.elphie.accounts.repositories.IAccountRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Concurrent single creates go through the group commit: fewer commits than creates,
+// every caller gets its own id, and a bad create only fails its own caller.
+@SpringBootTest(properties = { "elphie.group-commit.enabled=true", "elphie.group-commit.window=20ms" })
+class TransactionGroupCommitTests {
+
+	private static final long USER_ID = 9200L;
+	private static final long OTHER_USER_ID = 9201L;
+	private static final int CREATES = 50;
+
+	@Autowired
+	private TransactionGroupCommitter transactionGroupCommitter;
+
+	@Autowired
+	private IAccountRepository accountRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Test
+	void concurrentCreatesAreCommittedTogether() throws Exception {
+		long accountId = accountRepository.save(new Account(USER_ID, "Group", "current", "IE00GROUP", Money.ZERO)).getId();
+		long otherAccountId = accountRepository.save(new Account(OTHER_USER_ID, "Other", "current", "IE00OTHER", Money.ZERO)).getId();
+		long batchesBefore = registry.summary(TransactionGroupCommitter.BATCH_SIZE).count();
+
+		ExecutorService callers = Executors.newFixedThreadPool(CREATES + 1);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Transaction>> created = new ArrayList<>();
+		try {
+			for(int i = 0; i < CREATES; i++) {
+				Transaction transaction = transaction(accountId, i + 1);
+				created.add(callers.submit(() -> { start.await(); return transactionGroupCommitter.create(transaction); }));
+			}
+			// Account of another User, rejected by its balance update
+			Future<Transaction> invalid = callers.submit(() -> { start.await(); return transactionGroupCommitter.create(transaction(otherAccountId, 1)); });
+			start.countDown();
+
+			Set<Long> ids = new HashSet<>();
+			for(Future<Transaction> future : created) ids.add(future.get().getId());
+			assertEquals(CREATES, ids.size());
+
+			ExecutionException error = assertThrows(ExecutionException.class, invalid::get);
+			assertTrue(error.getCause() instanceof IllegalArgumentException);
+		} finally {
+			callers.shutdownNow();
+		}
+
+		long sum = (long) CREATES * (CREATES + 1) / 2;
+		assertEquals(CREATES, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE account_id = ?", Integer.class, accountId));
+		assertEquals(sum, jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", Long.class, accountId));
+		assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE account_id = ?", Integer.class, otherAccountId));
+		assertTrue(registry.summary(TransactionGroupCommitter.BATCH_SIZE).count() - batchesBefore < CREATES);
+	}
+
+	private static Transaction transaction(long accountId, long minorUnits) {
+		Transaction transaction = new Transaction(USER_ID, accountId, "Group " + minorUnits, Money.ofMinor(minorUnits), Date.valueOf("2024-03-01"));
+		transaction.setType("income");
+		return transaction;
+	}
+}